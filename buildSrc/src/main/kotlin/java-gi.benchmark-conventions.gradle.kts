@@ -0,0 +1,42 @@
+import org.gradle.accessors.dm.LibrariesForLibs
+
+/*
+ * Build settings for Java-GI modules with JMH benchmarks:
+ *
+ * - Add a 'jmh' source set that is compiled against the main classes
+ * - Load the JMH library and annotation processor
+ * - Register a 'jmh' task that runs the benchmarks
+ *
+ * Select benchmarks with a regular expression: ./gradlew jmh -Pjmh=Critical
+ */
+
+plugins {
+    id("java-gi.library-conventions")
+}
+
+// Workaround for https://github.com/gradle/gradle/issues/15383
+val libs: LibrariesForLibs
+    get() = the<LibrariesForLibs>()
+
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets["main"].output
+    runtimeClasspath += sourceSets["main"].output
+}
+
+configurations[jmh.implementationConfigurationName]
+    .extendsFrom(configurations.implementation.get())
+configurations[jmh.runtimeOnlyConfigurationName]
+    .extendsFrom(configurations.runtimeOnly.get())
+
+dependencies {
+    "jmhImplementation"(libs.jmh.core)
+    "jmhAnnotationProcessor"(libs.jmh.generator.annprocess)
+}
+
+tasks.register<JavaExec>("jmh") {
+    description = "Runs the JMH benchmarks."
+    group = "verification"
+    classpath = jmh.runtimeClasspath
+    mainClass = "org.openjdk.jmh.Main"
+    project.findProperty("jmh")?.let { args(it.toString()) }
+}
@@ -10,7 +10,8 @@ import org.apache.tools.ant.taskdefs.condition.Os
  * - Set group and Java-GI version number
  * - Set JDK version
  * - Configure 'generateSources' action
- * - Set OS-specific library paths and parameters for unit tests
+ * - Set OS-specific library paths and parameters for unit tests and
+ *   benchmarks
  * - Set common POM metadata and enable signing
  */
 
@@ -80,6 +81,11 @@ tasks.withType<Test>().configureEach {
 
     // Log standard output and error streams when running tests
     testLogging.showStandardStreams = true
+}
+
+// Native library paths and JVM parameters for tests and benchmarks
+tasks.matching { it is JavaForkOptions }.configureEach {
+    this as JavaForkOptions
 
     // Configure library path for macOS (Homebrew) and set MacOS-specific JVM parameter
     if (Os.isFamily(Os.FAMILY_MAC)) {
@@ -41,15 +41,25 @@ public final class ClassNames {
     public static final ClassName GERROR_EXCEPTION = get(PKG_BASE, "GErrorException");
     public static final ClassName GLIB_LOGGER = get(PKG_BASE, "GLibLogger");
     public static final ClassName OUT = get(PKG_BASE, "Out");
+    public static final ClassName BOOLEAN_OUT = get(PKG_BASE, "BooleanOut");
+    public static final ClassName BYTE_OUT = get(PKG_BASE, "ByteOut");
+    public static final ClassName DOUBLE_OUT = get(PKG_BASE, "DoubleOut");
+    public static final ClassName FLOAT_OUT = get(PKG_BASE, "FloatOut");
+    public static final ClassName INT_OUT = get(PKG_BASE, "IntOut");
+    public static final ClassName LONG_OUT = get(PKG_BASE, "LongOut");
+    public static final ClassName SHORT_OUT = get(PKG_BASE, "ShortOut");
     public static final ClassName PROXY = get(PKG_BASE, "Proxy");
     public static final ClassName PROXY_INSTANCE = get(PKG_BASE, "ProxyInstance");
     public static final ClassName UNSUPPORTED_PLATFORM_EXCEPTION = get(PKG_BASE, "UnsupportedPlatformException");
 
     public static final ClassName ARENAS = get(PKG_INTEROP, "Arenas");
-    public static final ClassName ARENA_CLOSE_ACTION = get(PKG_INTEROP, "ArenaCloseAction");
+    public static final ClassName CONCURRENT_LONG_MAP = get(PKG_INTEROP, "ConcurrentLongMap");
     public static final ClassName MEMORY_CLEANER = get(PKG_INTEROP, "MemoryCleaner");
     public static final ClassName INTEROP = get(PKG_INTEROP, "Interop");
     public static final ClassName PLATFORM = get(PKG_INTEROP, "Platform");
+    public static final ClassName REUSABLE_CALLBACKS = get(PKG_INTEROP, "ReusableCallbacks");
+    public static final ClassName SCRATCH_ARENA = get(PKG_INTEROP, "ScratchArena");
+    public static final ClassName SHARED_UPCALLS = get(PKG_INTEROP, "SharedUpcalls");
 
     public static final ClassName AUTO_CLOSEABLE = get(PKG_GIO, "AutoCloseable");
     public static final ClassName LIST_MODEL_JAVA_LIST = get(PKG_GIO, "ListModelJavaList");
@@ -62,8 +72,10 @@ public final class ClassNames {
     public static final ClassName SIGNAL_CONNECTION = get(PKG_GOBJECT, "SignalConnection");
 
     public static final ClassName OVERRIDES = get(PKG_GOBJECT_TYPES, "Overrides");
+    public static final ClassName PARENT_VIRTUAL_METHOD = get(PKG_GOBJECT_TYPES, "Overrides", "ParentVirtualMethod");
     public static final ClassName PROPERTIES = get(PKG_GOBJECT_TYPES, "Properties");
     public static final ClassName SIGNALS = get(PKG_GOBJECT_TYPES, "Signals");
+    public static final ClassName SIGNAL_ID = get(PKG_GOBJECT_TYPES, "Signals", "SignalId");
     public static final ClassName TYPE_CACHE = get(PKG_GOBJECT_TYPES, "TypeCache");
     public static final ClassName TYPES = get(PKG_GOBJECT_TYPES, "Types");
 
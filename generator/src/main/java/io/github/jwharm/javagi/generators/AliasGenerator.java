@@ -78,6 +78,9 @@ public class AliasGenerator extends RegisteredTypeGenerator {
                     .addMethod(valueConstructor(alias.type().typeName()))
                     .addMethod(arrayConstructor(alias.type()));
 
+        if (isGType())
+            addInternedInstances(builder);
+
         if (target instanceof Class || target instanceof Interface
                 || target instanceof Record || target instanceof Boxed
                 || target instanceof Union)
@@ -92,14 +95,79 @@ public class AliasGenerator extends RegisteredTypeGenerator {
         return builder.addModifiers(Modifier.PUBLIC).build();
     }
 
+    private boolean isGType() {
+        return ClassNames.GTYPE.equals(alias.typeName());
+    }
+
+    /*
+     * GTypes are compared and looked up very often. The canonical instances
+     * returned by Type.of(long) are cached, so marshaling a GType from native
+     * code does not allocate. Canonical instances are shared, so they reject
+     * setValue(); out-parameters always receive a new instance.
+     */
+    private void addInternedInstances(TypeSpec.Builder builder) {
+        var cache = ParameterizedTypeName.get(
+                ClassNames.CONCURRENT_LONG_MAP, ClassNames.GTYPE);
+        builder.addField(FieldSpec.builder(cache, "INTERNED",
+                                Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("new $T<>()", ClassNames.CONCURRENT_LONG_MAP)
+                        .build())
+                .addField(boolean.class, "interned", Modifier.PRIVATE, Modifier.FINAL)
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(Modifier.PRIVATE)
+                        .addParameter(long.class, "value")
+                        .addParameter(boolean.class, "interned")
+                        .addStatement("super(value)")
+                        .addStatement("this.interned = interned")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("of")
+                        .addJavadoc("""
+                            Get the canonical $1T instance for the provided
+                            GType value. Repeated calls with the same value
+                            return the same instance. The instance cannot be
+                            changed with {@link #setValue}, so it can't be used
+                            as an out-parameter; create a new $1T for that.
+                            
+                            @param  value the GType value
+                            @return the canonical $1T instance
+                            """, ClassNames.GTYPE)
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                        .returns(ClassNames.GTYPE)
+                        .addParameter(long.class, "value")
+                        .addStatement("$T type = INTERNED.get(value)", ClassNames.GTYPE)
+                        .addStatement("if (type != null) return type")
+                        .addStatement("return INTERNED.computeIfAbsent(value, v -> new $T(v, true))",
+                                ClassNames.GTYPE)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("setValue")
+                        .addJavadoc("""
+                            {@inheritDoc}
+                            
+                            @throws UnsupportedOperationException when this is a
+                                    canonical instance returned by {@link #of(long)}
+                            """)
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .addParameter(Long.class, "value")
+                        .beginControlFlow("if (interned)")
+                        .addStatement("throw new $T($S)",
+                                UnsupportedOperationException.class,
+                                "Cannot change a canonical GType instance")
+                        .endControlFlow()
+                        .addStatement("super.setValue(value)")
+                        .build());
+    }
+
     private MethodSpec valueConstructor(TypeName typeName) {
-        return MethodSpec.constructorBuilder()
+        var spec = MethodSpec.constructorBuilder()
                 .addJavadoc("Create a new $L with the provided value",
                         toJavaSimpleType(alias.name(), alias.namespace()))
                 .addModifiers(Modifier.PUBLIC)
                 .addParameter(typeName, "value")
-                .addStatement("super(value)")
-                .build();
+                .addStatement("super(value)");
+        if (isGType())
+            spec.addStatement("this.interned = false");
+        return spec.build();
     }
 
     @Override
@@ -160,6 +228,9 @@ public class AliasGenerator extends RegisteredTypeGenerator {
         if ("java.lang.String".equals(primitiveType.javaType()))
             spec.addStatement("array[i] = new $T($T.getStringFrom(segment.get($T.$L, i * byteSize), free))",
                     alias.typeName(), ClassNames.INTEROP, ValueLayout.class, layout);
+        else if (isGType())
+            spec.addStatement("array[i] = $T.of(segment.get($T.$L, i * byteSize))",
+                    alias.typeName(), ValueLayout.class, layout);
         else
             spec.addStatement("array[i] = new $T(segment.get($T.$L, i * byteSize))",
                     alias.typeName(), ValueLayout.class, layout);
@@ -212,8 +212,8 @@ public class ClassGenerator extends RegisteredTypeGenerator {
                 .returns(TypeVariableName.get("T"))
                 .addParameter(ClassNames.GTYPE, "objectType")
                 .addStatement("var _result = constructNew(objectType, null)")
-                .addStatement("T _object = (T) $T.getForType(_result, $T::new, true)",
-                        ClassNames.INSTANCE_CACHE, ClassNames.GOBJECT)
+                .addStatement("T _object = (T) $T.getForType(_result, $T.class, $T::new, true)",
+                        ClassNames.INSTANCE_CACHE, ClassNames.GOBJECT, ClassNames.GOBJECT)
                 .addStatement("return _object")
                 .build();
     }
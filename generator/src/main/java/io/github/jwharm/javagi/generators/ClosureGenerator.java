@@ -19,6 +19,7 @@
 
 package io.github.jwharm.javagi.generators;
 
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
@@ -30,6 +31,7 @@ import io.github.jwharm.javagi.util.PartialStatement;
 import javax.lang.model.element.Modifier;
 
 import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
 import java.lang.foreign.Linker;
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
@@ -66,7 +68,13 @@ public class ClosureGenerator {
                 .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
                 .addMethod(generateRunMethod())
                 .addMethod(generateUpcallMethod(name, "upcall", "run"))
-                .addMethod(generateToCallbackMethod(name));
+                .addMethod(generateToCallbackMethod(name))
+                .addType(generateUpcallHolder(name));
+
+        // Signal handlers receive user_data as the last argument, so they
+        // can share one upcall stub
+        if (closure instanceof Signal)
+            builder.addMethod(generateToSharedCallbackMethod(name));
 
         if (closure.deprecated())
             builder.addAnnotation(Deprecated.class);
@@ -314,21 +322,68 @@ public class ClosureGenerator {
         upcall.addStatement("return $T.NULL", MemorySegment.class);
     }
 
+    /*
+     * The function descriptor and the unbound method handle of the upcall
+     * method are created once, when the holder class is initialized.
+     */
+    TypeSpec generateUpcallHolder(String className) {
+        return TypeSpec.classBuilder("Upcall")
+                .addJavadoc("Holds the function descriptor and method handle of the {@link $L#upcall} method.\n",
+                        className)
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                .addField(FieldSpec.builder(FunctionDescriptor.class, "FDESC",
+                                Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer(generator.generateFunctionDescriptor())
+                        .build())
+                .addField(FieldSpec.builder(MethodHandle.class, "HANDLE",
+                                Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("$T.upcallHandle($T.lookup(), $L.class, FDESC)",
+                                ClassNames.INTEROP, MethodHandles.class, className)
+                        .build())
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(Modifier.PRIVATE)
+                        .build())
+                .build();
+    }
+
     MethodSpec generateToCallbackMethod(String className) {
         return MethodSpec.methodBuilder("toCallback")
                 .addJavadoc("""
                         Creates a native function pointer to the {@link #upcall} method.
+                        When this instance is registered in {@link $T}, the registered
+                        function pointer is returned instead.
                         
                         @return the native function pointer
-                        """)
+                        """, ClassNames.REUSABLE_CALLBACKS)
                 .addModifiers(Modifier.PUBLIC, Modifier.DEFAULT)
                 .addParameter(Arena.class, "arena")
                 .returns(MemorySegment.class)
-                .addCode(generator.generateFunctionDescriptorDeclaration())
-                .addStatement("$T _handle = $T.upcallHandle($T.lookup(), $L.class, _fdesc)",
-                        MethodHandle.class, ClassNames.INTEROP, MethodHandles.class, className)
-                .addStatement("return $T.nativeLinker().upcallStub(_handle.bindTo(this), _fdesc, arena)",
+                .addStatement("$T _stub = $T.lookup(this)",
+                        MemorySegment.class, ClassNames.REUSABLE_CALLBACKS)
+                .addStatement("if (_stub != null) return _stub")
+                .addStatement("return $T.nativeLinker().upcallStub(Upcall.HANDLE.bindTo(this), Upcall.FDESC, arena)",
                         Linker.class)
                 .build();
     }
+
+    MethodSpec generateToSharedCallbackMethod(String className) {
+        return MethodSpec.methodBuilder("toSharedCallback")
+                .addJavadoc("""
+                        Gets the native function pointer that is shared by all
+                        {@code $L} instances. It invokes the {@link #upcall} method of the
+                        instance that is registered in {@link $T} with the id in the
+                        user_data argument.
+                        
+                        @return the shared native function pointer
+                        """, className, ClassNames.SHARED_UPCALLS)
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC, Modifier.DEFAULT)
+                .returns(MemorySegment.class)
+                .addStatement("$T _stub = $T.getStub($L.class)",
+                        MemorySegment.class, ClassNames.SHARED_UPCALLS, className)
+                .addStatement("if (_stub != null) return _stub")
+                .addStatement("return $T.getStub($T.lookup(), $L.class, Upcall.FDESC)",
+                        ClassNames.SHARED_UPCALLS, MethodHandles.class, className)
+                .build();
+    }
 }
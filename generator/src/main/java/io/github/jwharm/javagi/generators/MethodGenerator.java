@@ -29,7 +29,6 @@ import io.github.jwharm.javagi.util.PartialStatement;
 import io.github.jwharm.javagi.util.Platform;
 
 import javax.lang.model.element.Modifier;
-import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
 import java.lang.invoke.MethodHandle;
@@ -88,6 +87,21 @@ public class MethodGenerator {
     }
 
     public FieldSpec generateNamedDowncallHandle(Modifier... modifiers) {
+        // Critical functions can receive heap segments
+        if (func.critical())
+            return FieldSpec.builder(
+                            MethodHandle.class,
+                            func.callableAttrs().cIdentifier(),
+                            modifiers)
+                    .initializer(CodeBlock.builder()
+                            .add("$T.criticalDowncallHandle($Z$S,$W",
+                                    ClassNames.INTEROP,
+                                    func.callableAttrs().cIdentifier())
+                            .add(generator.generateFunctionDescriptor())
+                            .add(",$Wtrue)")
+                            .build())
+                    .build();
+
         return FieldSpec.builder(
                         MethodHandle.class,
                         func.callableAttrs().cIdentifier(),
@@ -158,8 +172,8 @@ public class MethodGenerator {
 
         // try-block for arena
         if (func.allocatesMemory())
-            builder.beginControlFlow("try (var _arena = $T.ofConfined())",
-                    Arena.class);
+            builder.beginControlFlow("try (var _arena = $T.open())",
+                    ClassNames.SCRATCH_ARENA);
 
         // Preprocessing
         if (func.parameters() != null)
@@ -456,32 +470,13 @@ public class MethodGenerator {
     }
 
     private void functionPointerInvocation(boolean longAsInt) {
-        // Function descriptor
         var generator = new CallableGenerator(vm);
-        builder.addCode(generator.generateFunctionDescriptorDeclaration());
-
-        // Function pointer lookup
-        switch (vm.parent()) {
-            case Class c ->
-                    builder.addStatement("$T _func = $T.lookupVirtualMethodParent(handle(),$W$T.getMemoryLayout(),$W$S)",
-                            MemorySegment.class,
-                            ClassNames.OVERRIDES,
-                            c.typeStruct().typeName(),
-                            vm.name());
-            case Interface i ->
-                    builder.addStatement("$T _func = $T.lookupVirtualMethodParent(handle(),$W$T.getMemoryLayout(),$W$S,$W$T.getType())",
-                            MemorySegment.class,
-                            ClassNames.OVERRIDES,
-                            i.typeStruct().typeName(),
-                            vm.name(),
-                            i.typeName());
-            default -> throw new IllegalStateException("Virtual Method parent must be a class or an interface");
-        }
 
-        // Function pointer null-check
-        builder.addStatement("if (_func.equals($T.NULL)) throw new $T()",
-                MemorySegment.class,
-                NullPointerException.class);
+        // Parent function pointer lookup
+        builder.addStatement("$T _handle = $T.$L.get(handle())",
+                MethodHandle.class,
+                ((RegisteredType) vm.parent()).helperClass(),
+                parentVirtualMethodField(vm));
 
         // Result assignment
         PartialStatement invoke = new PartialStatement();
@@ -502,11 +497,45 @@ public class MethodGenerator {
         }
 
         // Function pointer invocation
-        invoke.add("$interop:T.downcallHandle(_func, _fdesc)$Z.invokeExact($Z", "interop",
-                        ClassNames.INTEROP)
+        invoke.add("_handle.invokeExact($Z")
                 .add(generator.marshalParameters(longAsInt))
                 .add(");\n");
 
         builder.addNamedCode(invoke.format(), invoke.arguments());
     }
+
+    private static String parentVirtualMethodField(VirtualMethod vm) {
+        return "parent_" + vm.name();
+    }
+
+    /**
+     * Generate a static field with the parent implementation of a virtual
+     * method, that is used by the generated method to chain up. The function
+     * pointer is looked up and linked once per instance type.
+     *
+     * @param  vm the virtual method
+     * @return the field declaration for the DowncallHandles class
+     */
+    public static FieldSpec generateParentVirtualMethod(VirtualMethod vm) {
+        var fdesc = new CallableGenerator(vm).generateFunctionDescriptor();
+        var initializer = switch (vm.parent()) {
+            case Class c -> CodeBlock.of("new $T($S,$W$T::getMemoryLayout,$W() -> $L)",
+                    ClassNames.PARENT_VIRTUAL_METHOD,
+                    vm.name(),
+                    c.typeStruct().typeName(),
+                    fdesc);
+            case Interface i -> CodeBlock.of("new $T($S,$W$T::getMemoryLayout,$W$T::getType,$W() -> $L)",
+                    ClassNames.PARENT_VIRTUAL_METHOD,
+                    vm.name(),
+                    i.typeStruct().typeName(),
+                    i.typeName(),
+                    fdesc);
+            default -> throw new IllegalStateException("Virtual Method parent must be a class or an interface");
+        };
+        return FieldSpec.builder(ClassNames.PARENT_VIRTUAL_METHOD,
+                        parentVirtualMethodField(vm),
+                        Modifier.STATIC, Modifier.FINAL)
+                .initializer(initializer)
+                .build();
+    }
 }
@@ -129,29 +129,32 @@ public class NamespaceGenerator extends RegisteredTypeGenerator {
                 .addModifiers(Modifier.PRIVATE, Modifier.STATIC);
 
         for (Class c : ns.classes())
-            spec.addCode(register(c.constructorName(), c.typeName()));
+            spec.addCode(register(c.constructorName(), c.typeName(), c.typeName()));
 
         for (Interface i : ns.interfaces())
-            spec.addCode(register(i.constructorName(), i.typeName()));
+            spec.addCode(register(i.constructorName(), i.typeName(), i.typeName()));
 
         for (Alias a : ns.aliases()) {
             RegisteredType target = a.type().get();
             if (target instanceof Class c)
-                spec.addCode(register(c.constructorName(), a.typeName()));
+                spec.addCode(register(c.constructorName(), c.typeName(), a.typeName()));
             if (target instanceof Interface i)
-                spec.addCode(register(i.constructorName(), a.typeName()));
+                spec.addCode(register(i.constructorName(), i.typeName(), a.typeName()));
         }
 
         for (Boxed b : ns.boxeds())
-            spec.addCode(register(b.constructorName(), b.typeName()));
+            spec.addCode(register(b.constructorName(), b.typeName(), b.typeName()));
 
         return spec.build();
     }
 
-    private CodeBlock register(PartialStatement constructor, ClassName typeName) {
-        var stmt = PartialStatement.of("$typeCache:T.register($typeName:T.getType(), ",
+    private CodeBlock register(PartialStatement constructor,
+                               ClassName instanceClass,
+                               ClassName typeName) {
+        var stmt = PartialStatement.of("$typeCache:T.register($typeName:T.getType(), $instanceClass:T.class, ",
                         "typeCache", ClassNames.TYPE_CACHE,
-                        "typeName", typeName)
+                        "typeName", typeName,
+                        "instanceClass", instanceClass)
                 .add(constructor)
                 .add(");\n");
         return CodeBlock.builder()
@@ -20,6 +20,7 @@
 package io.github.jwharm.javagi.generators;
 
 import com.squareup.javapoet.MethodSpec;
+import io.github.jwharm.javagi.configuration.ClassNames;
 import io.github.jwharm.javagi.gir.*;
 import io.github.jwharm.javagi.util.PartialStatement;
 
@@ -50,8 +51,33 @@ public class PostprocessingGenerator extends TypedValueGenerator {
                     && target instanceof Alias a
                     && a.type().isPrimitive())) {
 
+            // Pointer to single primitive value: write it into the Out object
+            // without boxing, if possible
+            if (array == null
+                    && p.isOutParameter()
+                    && type.isPointer()
+                    && getPrimitiveOutType() != null) {
+                var layout = generateValueLayoutPlain(type);
+                var stmt = PartialStatement.of("$interop:T.setOut($name:L, ",
+                                "interop", ClassNames.INTEROP,
+                                "name", getName())
+                        .add("_$name:LPointer.get(")
+                        .add(layout)
+                        .add(", 0)")
+                        .add(type.isBoolean() ? " != 0" : "")
+                        .add(");\n");
+
+                // Null-check
+                if (checkNull())
+                    builder.beginControlFlow("if ($1L != null)", getName())
+                            .addNamedCode(stmt.format(), stmt.arguments())
+                            .endControlFlow();
+                else
+                    builder.addNamedCode(stmt.format(), stmt.arguments());
+            }
+
             // Pointer to single value
-            if (array == null) {
+            else if (array == null) {
                 var stmt = PartialStatement.of(null, "valueLayout", ValueLayout.class);
 
                 stmt.add(getName())
@@ -144,7 +170,14 @@ public class PostprocessingGenerator extends TypedValueGenerator {
 
         if (type != null) {
             PartialStatement payload;
-            if (type.isPrimitive()
+            var primitiveOut = getPrimitiveOutType();
+            if (primitiveOut != null) {
+                payload = PartialStatement.of("_" + getName() + "Out."
+                        + getPrimitiveOutGetter(primitiveOut) + "()");
+                if (type.isBoolean())
+                    payload.add(" ? 1 : 0");
+            }
+            else if (type.isPrimitive()
                     || (target instanceof Alias a && a.type().isPrimitive())) {
                 payload = PartialStatement.of("_" + getName() + "Out.get()");
                 if (type.isBoolean())
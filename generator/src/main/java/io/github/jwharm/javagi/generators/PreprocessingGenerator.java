@@ -129,11 +129,18 @@ public class PreprocessingGenerator extends TypedValueGenerator {
                             .add(");\n");
                     builder.addNamedCode(stmt.format(), stmt.arguments());
                 }
-                // Declare an Out<> instance
-                builder.addStatement("$1T $2L = new $3T<>()",
-                        getType(),
-                        getName(),
-                        ClassNames.OUT);
+                // Declare an Out<> instance, that holds a primitive value
+                // without boxing if possible
+                var primitiveOut = getPrimitiveOutType();
+                if (primitiveOut != null)
+                    builder.addStatement("$1T $2L = new $1T()",
+                            primitiveOut,
+                            getName());
+                else
+                    builder.addStatement("$1T $2L = new $3T<>()",
+                            getType(),
+                            getName(),
+                            ClassNames.OUT);
             } else {
                 // Declare a primitive value
                 var stmt = PartialStatement.of("$type:T $name:L =$W",
@@ -177,11 +184,11 @@ public class PreprocessingGenerator extends TypedValueGenerator {
                             Arena.class,
                             getName());
         else if (p.scope() == Scope.ASYNC && (!p.isDestroyNotifyParameter()))
-            builder.addStatement("final $1T _$2LScope = $1T.ofConfined()",
+            builder.addStatement("final $1T _$2LScope = $1T.ofShared()",
                             Arena.class,
                             getName())
-                    .addStatement("if ($2L != null) $1T.CLEANER.register($2L, new $1T(_$2LScope))",
-                            ClassNames.ARENA_CLOSE_ACTION,
+                    .addStatement("if ($2L != null) $1T.attachArena(_$2LScope, $2L)",
+                            ClassNames.INTEROP,
                             getName());
     }
 
@@ -258,7 +265,18 @@ public class PreprocessingGenerator extends TypedValueGenerator {
                     .add(".byteSize(), _arena, null);\n");
             builder.addNamedCode(stmt.format(), stmt.arguments());
 
-            if (type.isPrimitive()
+            var primitiveOut = getPrimitiveOutType();
+            if (primitiveOut != null) {
+                stmt = PartialStatement.of(
+                                "$outType:T _$name:LOut = new $outType:T($name:LParam.get(",
+                                "outType", primitiveOut,
+                                "name", getName())
+                        .add(generateValueLayoutPlain(type))
+                        .add(", 0)")
+                        .add(type.isBoolean() ? " != 0" : "")
+                        .add(");\n");
+                builder.addNamedCode(stmt.format(), stmt.arguments());
+            } else if (type.isPrimitive()
                     || target instanceof Alias a && a.type().isPrimitive()) {
                 stmt = PartialStatement.of(
                                 "$outType:T _$name:LOut = new $out:T<>($name:LParam.get(",
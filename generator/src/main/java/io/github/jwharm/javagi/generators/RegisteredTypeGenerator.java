@@ -31,6 +31,8 @@ import javax.lang.model.element.Modifier;
 
 import java.lang.foreign.MemorySegment;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 import static io.github.jwharm.javagi.util.CollectionUtils.filter;
 import static io.github.jwharm.javagi.util.Conversions.toJavaIdentifier;
@@ -187,7 +189,9 @@ public class RegisteredTypeGenerator {
     }
 
     public boolean hasDowncallHandles() {
-        return (! listNamedFunctions().isEmpty());
+        return (! listNamedFunctions().isEmpty())
+                || (! listFixedEmitSignals().isEmpty())
+                || (! listParentVirtualMethods().isEmpty());
     }
 
     public TypeSpec downcallHandlesClass() {
@@ -208,9 +212,37 @@ public class RegisteredTypeGenerator {
             }
         }
 
+        for (SignalGenerator generator : listFixedEmitSignals())
+            builder.addFields(generator.generateEmitFields());
+
+        for (VirtualMethod vm : listParentVirtualMethods())
+            builder.addField(MethodGenerator.generateParentVirtualMethod(vm));
+
         return builder.build();
     }
 
+    // Virtual methods that are called by generated methods to chain up
+    private List<VirtualMethod> listParentVirtualMethods() {
+        var invokers = filter(rt.children(), Method.class).stream()
+                .filter(not(Method::skip))
+                .map(Method::invokerFor)
+                .filter(Objects::nonNull);
+        var vms = filter(rt.children(), VirtualMethod.class).stream()
+                .filter(not(VirtualMethod::skip));
+        return Stream.concat(vms, invokers)
+                .distinct()
+                .toList();
+    }
+
+    // Signals with a generated emit method that uses g_signal_emit
+    private List<SignalGenerator> listFixedEmitSignals() {
+        return filter(rt.children(), Signal.class).stream()
+                .map(SignalGenerator::new)
+                .filter(not(SignalGenerator::emitMethodExists))
+                .filter(SignalGenerator::hasFixedEmitSignature)
+                .toList();
+    }
+
     private List<Callable> listNamedFunctions() {
         return rt.children().stream()
                 .filter(c -> c instanceof Constructor
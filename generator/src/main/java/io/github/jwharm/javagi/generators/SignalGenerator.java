@@ -28,11 +28,18 @@ import org.jetbrains.annotations.Nullable;
 import javax.lang.model.element.Modifier;
 
 import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
+import static io.github.jwharm.javagi.util.Conversions.getValueLayout;
 import static io.github.jwharm.javagi.util.Conversions.toCamelCase;
 import static java.util.Comparator.comparing;
+import static java.util.stream.Collectors.joining;
 
 public class SignalGenerator {
 
@@ -77,9 +84,8 @@ public class SignalGenerator {
                             .build());
 
         builder.addParameter(signal.typeName(), "handler")
-                .beginControlFlow("try ($1T _arena = $1T.ofConfined())",
-                        Arena.class)
-                .beginControlFlow("try");
+                .beginControlFlow("try ($T _arena = $T.open())",
+                        Arena.class, ClassNames.SCRATCH_ARENA);
 
         if (signal.detailed())
             builder.addStatement("var _name = $T.allocateNativeString($S + ((detail == null || detail.isBlank()) ? $S : ($S + detail)), _arena)",
@@ -92,24 +98,80 @@ public class SignalGenerator {
                     ClassNames.INTEROP,
                     signal.name());
 
-        return builder.addStatement("var _callbackArena = $T.ofShared()",
-                        Arena.class)
-                .addStatement("var _result = (int) (long) $1T.g_signal_connect_data.invokeExact("
-                                + "$Zhandle(),"
-                                + "$W_name,$Whandler.toCallback(_callbackArena),"
-                                + "$W$2T.cacheArena(_callbackArena),"
-                                + "$W$2T.CLOSE_CB_SYM,"
-                                + "$W0)",
-                        ClassNames.SIGNALS,
-                        ClassNames.ARENAS)
+        return builder.addStatement("var _result = (int) $T.connect(handle(), _name, handler, 0)",
+                        ClassNames.SIGNALS)
                 .addStatement("return new SignalConnection<>(handle(), _result)")
-                .nextControlFlow("catch (Throwable _err)")
-                .addStatement("throw new AssertionError(_err)")
-                .endControlFlow()
                 .endControlFlow()
                 .build();
     }
 
+    /*
+     * Signals that only have int, long, double and pointer parameters can be
+     * emitted with g_signal_emit and a fixed function descriptor, because
+     * those types are not changed by the C default argument promotions.
+     */
+    public boolean hasFixedEmitSignature() {
+        if (signal.parameters() == null)
+            return true;
+        return signal.parameters().parameters().stream()
+                .noneMatch(p -> p.varargs()
+                        || !FIXED_EMIT_LAYOUTS.contains(
+                                getValueLayout(p.anyType(), false)));
+    }
+
+    private static final Set<String> FIXED_EMIT_LAYOUTS =
+            Set.of("ADDRESS", "JAVA_INT", "JAVA_LONG", "JAVA_DOUBLE");
+
+    private String fieldName() {
+        return signal.name().replace("-", "_");
+    }
+
+    private ClassName helperClass() {
+        return ((RegisteredType) signal.parent()).helperClass();
+    }
+
+    /**
+     * Generate the static fields that are used by the signal-emission method:
+     * the lazily resolved signal id, and the method handle for g_signal_emit
+     * with a fixed function descriptor for the signal parameters.
+     *
+     * @return the field declarations for the DowncallHandles class
+     */
+    public List<FieldSpec> generateEmitFields() {
+        var signalId = FieldSpec.builder(ClassNames.SIGNAL_ID,
+                        "signal_" + fieldName(),
+                        Modifier.STATIC, Modifier.FINAL)
+                .initializer("new $T($S)", ClassNames.SIGNAL_ID, signal.name())
+                .build();
+
+        // instance, signal_id, detail, parameters, and return value location
+        List<String> layouts = new ArrayList<>();
+        layouts.add("$valueLayout:T.ADDRESS");
+        layouts.add("$valueLayout:T.JAVA_INT");
+        layouts.add("$valueLayout:T.JAVA_INT");
+        if (signal.parameters() != null)
+            for (var p : signal.parameters().parameters())
+                layouts.add(generator.generateValueLayout(p.anyType()));
+        if (!signal.returnValue().anyType().isVoid())
+            layouts.add("$valueLayout:T.ADDRESS");
+
+        var fdesc = PartialStatement.of("$interop:T.downcallHandle($function:S,$W",
+                        "interop", ClassNames.INTEROP,
+                        "function", "g_signal_emit",
+                        "functionDescriptor", FunctionDescriptor.class,
+                        "valueLayout", ValueLayout.class)
+                .add("$functionDescriptor:T.ofVoid")
+                .add(layouts.stream().collect(joining(",$W", "(", ")")))
+                .add(",$W3)");
+        var emitHandle = FieldSpec.builder(MethodHandle.class,
+                        "g_signal_emit_" + fieldName(),
+                        Modifier.STATIC, Modifier.FINAL)
+                .initializer(fdesc.toCodeBlock())
+                .build();
+
+        return List.of(signalId, emitHandle);
+    }
+
     public boolean emitMethodExists() {
         String name = "emit_" + signal.name().replace("-", "_");
         return signal.parent().children().stream()
@@ -150,8 +212,8 @@ public class SignalGenerator {
         generator.generateMethodParameters(builder, false, true);
 
         // Arena for memory allocations
-        builder.beginControlFlow("try ($1T _arena = $1T.ofConfined())",
-                Arena.class);
+        builder.beginControlFlow("try ($T _arena = $T.open())",
+                Arena.class, ClassNames.SCRATCH_ARENA);
 
         // Parameter preprocessing
         if (signal.parameters() != null)
@@ -177,6 +239,69 @@ public class SignalGenerator {
             builder.addNamedCode(stmt.format(), stmt.arguments());
         }
 
+        // Emit the signal
+        if (hasFixedEmitSignature())
+            emitWithSignalId(builder);
+        else
+            emitByName(builder, returnValue);
+
+        // Parameter postprocessing
+        if (signal.parameters() != null)
+            for (var p : signal.parameters().parameters())
+                new PostprocessingGenerator(p).generate(builder);
+
+        // Marshal the return value
+        if (!returnValue.anyType().isVoid()) {
+            var generator = new TypedValueGenerator(returnValue);
+            var identifier = "_result.get(" + returnLayout.format() + ", 0)";
+            var stmt = PartialStatement.of("return ",
+                            "valueLayout", ValueLayout.class)
+                    .add(generator.marshalNativeToJava(identifier, false))
+                    .add(";\n");
+            stmt.arguments().putAll(returnLayout.arguments());
+            builder.addNamedCode(stmt.format(), stmt.arguments());
+        }
+
+        // Log exceptions
+        return builder.nextControlFlow("catch (Throwable _err)")
+                .addStatement("throw new AssertionError(_err)")
+                .endControlFlow()
+                .build();
+    }
+
+    /*
+     * Emit the signal with g_signal_emit. The signal id is looked up only
+     * once, and the method handle is linked only once.
+     */
+    private void emitWithSignalId(MethodSpec.Builder builder) {
+        var stmt = PartialStatement.of(
+                "$helper:T.g_signal_emit_" + fieldName() + ".invokeExact($Zhandle(),"
+                        + "$W$helper:T.signal_" + fieldName() + ".get(handle()),$W",
+                "helper", helperClass(),
+                "signals", ClassNames.SIGNALS);
+
+        if (signal.detailed())
+            stmt.add("$signals:T.detailQuark(detail)");
+        else
+            stmt.add("0");
+
+        if (signal.parameters() != null
+                && !signal.parameters().parameters().isEmpty())
+            stmt.add(",$W").add(generator.marshalParameters(false));
+
+        if (!signal.returnValue().anyType().isVoid())
+            stmt.add(",$W_result");
+
+        stmt.add(");\n");
+        builder.addNamedCode(stmt.format(), stmt.arguments());
+    }
+
+    /*
+     * Emit the signal with the variadic g_signal_emit_by_name function. This
+     * is used for signals with parameter types that cannot be passed as a
+     * fixed variadic argument.
+     */
+    private void emitByName(MethodSpec.Builder builder, ReturnValue returnValue) {
         // Allocate memory for signal name
         if (signal.detailed())
             builder.addStatement("$T _name = $T.allocateNativeString($S + ((detail == null || detail.isBlank()) ? $S : ($S + detail)), _arena)",
@@ -218,28 +343,5 @@ public class SignalGenerator {
         // Emit the signal
         builder.addStatement("$T.g_signal_emit_by_name.invokeExact(handle(), _name, _args)",
                 ClassNames.SIGNALS);
-
-        // Parameter postprocessing
-        if (signal.parameters() != null)
-            for (var p : signal.parameters().parameters())
-                new PostprocessingGenerator(p).generate(builder);
-
-        // Marshal the return value
-        if (!returnValue.anyType().isVoid()) {
-            var generator = new TypedValueGenerator(returnValue);
-            var identifier = "_result.get(" + returnLayout.format() + ", 0)";
-            var stmt = PartialStatement.of("return ",
-                            "valueLayout", ValueLayout.class)
-                    .add(generator.marshalNativeToJava(identifier, false))
-                    .add(";\n");
-            stmt.arguments().putAll(returnLayout.arguments());
-            builder.addNamedCode(stmt.format(), stmt.arguments());
-        }
-
-        // Log exceptions
-        return builder.nextControlFlow("catch (Throwable _err)")
-                .addStatement("throw new AssertionError(_err)")
-                .endControlFlow()
-                .build();
     }
 }
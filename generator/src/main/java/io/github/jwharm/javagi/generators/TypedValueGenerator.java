@@ -120,6 +120,35 @@ class TypedValueGenerator {
         return typeName;
     }
 
+    /*
+     * Get the Out class that holds an unboxed primitive value of the
+     * (non-alias) type, or null if there is none.
+     */
+    ClassName getPrimitiveOutType() {
+        if (type == null || target != null || !type.isPrimitive())
+            return null;
+
+        return switch (type.typeName().toString()) {
+            case "boolean" -> ClassNames.BOOLEAN_OUT;
+            case "byte" -> ClassNames.BYTE_OUT;
+            case "double" -> ClassNames.DOUBLE_OUT;
+            case "float" -> ClassNames.FLOAT_OUT;
+            case "int" -> ClassNames.INT_OUT;
+            case "long" -> ClassNames.LONG_OUT;
+            case "short" -> ClassNames.SHORT_OUT;
+            default -> null;
+        };
+    }
+
+    /*
+     * The method that reads the unboxed value from a primitive Out class,
+     * for example "getAsInt" for IntOut.
+     */
+    static String getPrimitiveOutGetter(ClassName primitiveOutType) {
+        String name = primitiveOutType.simpleName();
+        return "getAs" + name.substring(0, name.length() - "Out".length());
+    }
+
     String getName() {
         return "...".equals(v.name())
                 ? "varargs"
@@ -195,7 +224,7 @@ class TypedValueGenerator {
             case Callback _ -> {
                 String arena = switch(Scope.ofTypedValue(v)) {
                     case null -> "$arena:T.global()";
-                    case BOUND -> "$interop:T.attachArena($arena:T.ofConfined(), this)";
+                    case BOUND -> "$interop:T.attachArena($arena:T.ofShared(), this)";
                     case CALL -> "_arena";
                     case NOTIFIED, ASYNC -> "_" + identifier + "Scope";
                     case FOREVER -> "$arena:T.global()";
@@ -225,6 +254,12 @@ class TypedValueGenerator {
         boolean isPrimitiveAlias = target instanceof Alias a
                                             && a.type().isPrimitive();
 
+        // Critical functions can read a primitive Java array in-place
+        if (isHeapArray(array, type))
+            return PartialStatement.of(
+                    "$memorySegment:T.ofArray(" + identifier + ")",
+                    "memorySegment", MemorySegment.class);
+
         String targetTypeTag = isFlaggedType ? "flaggedType" : type.toTypeTag();
 
         String primitiveClassName = isPrimitiveAlias
@@ -254,6 +289,23 @@ class TypedValueGenerator {
                 "interop", ClassNames.INTEROP);
     }
 
+    /*
+     * A primitive array that is only read by a critical function, can be
+     * passed as a heap segment instead of being copied to native memory.
+     */
+    private boolean isHeapArray(Array array, Type type) {
+        return v instanceof Parameter p
+                && p.parent().parent() instanceof Callable c
+                && c.critical()
+                && (!p.isOutParameter())
+                && p.transferOwnership() == NONE
+                && (!array.zeroTerminated())
+                && type.get() == null
+                && type.isPrimitive()
+                && (!type.isBoolean())
+                && (!type.isLong());
+    }
+
     PartialStatement marshalNativeToJava(String identifier, boolean upcall) {
         if (type != null
                 && type.cType() != null
@@ -373,6 +425,15 @@ class TypedValueGenerator {
                     "memorySegment", MemorySegment.class,
                     targetTypeTag, target.typeName());
 
+        // Use the canonical GType instances, except for out-parameters:
+        // canonical instances can't be changed.
+        if (target instanceof Alias a
+                && ClassNames.GTYPE.equals(a.typeName())
+                && !isOutParameter(type))
+            return PartialStatement.of(
+                    "$" + targetTypeTag + ":T.of(" + identifier + ")",
+                    targetTypeTag, target.typeName());
+
         if (target instanceof Alias a &&
                 (a.type().isPrimitive()
                     || a.type().isString()
@@ -390,13 +451,22 @@ class TypedValueGenerator {
                     && (a.type().get() instanceof Class ||
                         a.type().get() instanceof Interface));
 
-        String cacheFunction =
-                hasGType ? "getForType" :
-                isTypeClass ? "getForTypeClass" :
-                "get";
+        String cacheFunction = isTypeClass ? "getForTypeClass" : "get";
 
         String cache = upcall ? "false" : "true";
 
+        if (hasGType) {
+            // Pass the declared class, so constructors of parent types can be
+            // checked without instantiating them
+            var declared = target instanceof Alias a ? a.type().get() : target;
+            return PartialStatement.of("($" + targetTypeTag + ":T) $instanceCache:T.getForType(" + identifier + ", $declared:T.class, ")
+                            .add(target.constructorName())
+                            .add(", " + cache + ")",
+                                    targetTypeTag, target.typeName(),
+                                    "declared", declared.typeName(),
+                                    "instanceCache", ClassNames.INSTANCE_CACHE);
+        }
+
         if (target instanceof Class
                 || target instanceof Interface
                 || target instanceof Alias a && a.type().isProxy()
@@ -727,4 +797,12 @@ class TypedValueGenerator {
                 "interop", ClassNames.INTEROP,
                 "valueLayout", ValueLayout.class);
     }
+
+    // Check if the type belongs to an out-parameter
+    private static boolean isOutParameter(Type type) {
+        Node parent = type.parent();
+        while (parent instanceof AnyType)
+            parent = parent.parent();
+        return parent instanceof Parameter p && p.isOutParameter();
+    }
 }
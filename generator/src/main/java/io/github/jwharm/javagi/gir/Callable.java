@@ -85,6 +85,21 @@ public sealed interface Callable
         return false;
     }
 
+    /*
+     * If true, this callable is a short-running leaf function that will be
+     * linked as a critical function. Critical functions must not call back
+     * into Java. Variadic functions are never linked as critical functions.
+     */
+    default boolean critical() {
+        return attrBool("java-gi-critical", false)
+                && (this instanceof Function
+                    || this instanceof Method
+                    || this instanceof Constructor)
+                && (parameters() == null
+                    || parameters().parameters().stream()
+                            .noneMatch(Parameter::varargs));
+    }
+
     /**
      * Return true when there is one or more bitfield parameters.
      * An alias for a bitfield is counted as a bitfield as well.
@@ -128,6 +128,23 @@ public class GObjectPatch implements Patch {
             return r;
         }
 
+        /*
+         * Type checks and GValue getters are short leaf functions that are
+         * called very often. Link them as critical functions.
+         */
+        if (element instanceof Function f
+                && List.of("g_type_check_instance_is_a",
+                           "g_type_check_instance_is_fundamentally_a",
+                           "g_type_check_value",
+                           "g_type_fundamental")
+                       .contains(f.callableAttrs().cIdentifier()))
+            return f.withAttribute("java-gi-critical", "1");
+
+        if (element instanceof Method m
+                && m.callableAttrs().cIdentifier() != null
+                && m.callableAttrs().cIdentifier().startsWith("g_value_get_"))
+            return m.withAttribute("java-gi-critical", "1");
+
         /*
          * GObject.notify() is defined as a virtual method with an invoker
          * method, but the parameters are different. Remove the invoker
@@ -0,0 +1,48 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.patches;
+
+import io.github.jwharm.javagi.gir.Constructor;
+import io.github.jwharm.javagi.gir.Function;
+import io.github.jwharm.javagi.gir.GirElement;
+import io.github.jwharm.javagi.gir.Method;
+import io.github.jwharm.javagi.util.Patch;
+
+public class GraphenePatch implements Patch {
+
+    @Override
+    public GirElement patch(GirElement element, String namespace) {
+
+        if (!"Graphene".equals(namespace))
+            return element;
+
+        /*
+         * Graphene functions are short math routines that never call back
+         * into Java. Link them as critical functions, so vectors and
+         * matrices can also be initialized directly from Java arrays.
+         */
+        if (element instanceof Function
+                || element instanceof Method
+                || element instanceof Constructor)
+            return element.withAttribute("java-gi-critical", "1");
+
+        return element;
+    }
+}
@@ -10,3 +10,20 @@ dependencies {
 tasks.withType<GenerateSources> {
     namespace = "Gio"
 }
+
+// Run the signal tests again, with shared upcall stubs for signal handlers
+val sharedUpcallsTest by tasks.registering(Test::class) {
+    description = "Runs the signal tests with shared upcall stubs."
+    group = "verification"
+    testClassesDirs = sourceSets["test"].output.classesDirs
+    classpath = sourceSets["test"].runtimeClasspath
+    systemProperty("javagi.sharedUpcallStubs", "true")
+    filter {
+        includeTestsMatching("*.SignalTest")
+        includeTestsMatching("*.SharedSignalStubsTest")
+    }
+}
+
+tasks.check {
+    dependsOn(sharedUpcallsTest)
+}
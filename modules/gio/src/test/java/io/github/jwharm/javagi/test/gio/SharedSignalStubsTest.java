@@ -0,0 +1,72 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 the Java-GI developers
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.test.gio;
+
+import io.github.jwharm.javagi.gobject.SignalConnection;
+import io.github.jwharm.javagi.interop.SharedUpcalls;
+import org.gnome.gio.Application;
+import org.gnome.gobject.GObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Test connecting and disconnecting signals with shared upcall stubs. This
+ * only runs in the {@code sharedUpcallsTest} task, that sets the system
+ * property {@code javagi.sharedUpcallStubs}.
+ */
+public class SharedSignalStubsTest {
+
+    @Test
+    public void connectAndDisconnect() {
+        assumeTrue(SharedUpcalls.ENABLED, "Shared upcall stubs are disabled");
+        int registered = SharedUpcalls.registeredHandlers();
+
+        // Connect a signal with a Builder
+        var builderNotified = new AtomicBoolean(false);
+        Application app = Application.builder()
+                .setApplicationId("javagi.test.Shared1")
+                .onNotify("application-id", _ -> builderNotified.set(true))
+                .build();
+        assertEquals(registered + 1, SharedUpcalls.registeredHandlers());
+
+        // Connect a signal with a generated method
+        var notified = new AtomicBoolean(false);
+        SignalConnection<GObject.NotifyCallback> signal =
+                app.onNotify("application-id", _ -> notified.set(true));
+        assertEquals(registered + 2, SharedUpcalls.registeredHandlers());
+        assertNotNull(SharedUpcalls.getStub(GObject.NotifyCallback.class));
+
+        app.setApplicationId("javagi.test.Shared2");
+        assertTrue(builderNotified.get());
+        assertTrue(notified.get());
+
+        // Disconnecting runs remove_cb
+        signal.disconnect();
+        assertEquals(registered + 1, SharedUpcalls.registeredHandlers());
+
+        // Disposing the object destroys the remaining handler
+        app.runDispose();
+        assertEquals(registered, SharedUpcalls.registeredHandlers());
+    }
+}
@@ -23,14 +23,16 @@ import io.github.jwharm.javagi.gobject.SignalConnection;
 import org.gnome.gio.Application;
 import org.gnome.gio.ApplicationFlags;
 import org.gnome.gobject.GObject;
+import org.gnome.gobject.ParamSpec;
 import org.junit.jupiter.api.Test;
 
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
- * Test connecting a signal, and blocking/unblocking it
+ * Test connecting a signal, blocking/unblocking it, and emitting it
  */
 public class SignalTest {
 
@@ -67,4 +69,19 @@ public class SignalTest {
         app.setApplicationId("test.id3");
         assertFalse(success.get());
     }
+
+    @Test
+    public void emitDetailedSignal() {
+        var received = new AtomicReference<String>();
+        Application app = new Application("test.id1", ApplicationFlags.DEFAULT_FLAGS);
+        app.onNotify("application-id", pspec -> received.set(pspec.getName()));
+        var objectClass = (GObject.ObjectClass) app.readGClass();
+        ParamSpec pspec = objectClass.findProperty("application-id");
+
+        // The handler is only called for a matching detail
+        app.emitNotify("flags", pspec);
+        assertNull(received.get());
+        app.emitNotify("application-id", pspec);
+        assertEquals("application-id", received.get());
+    }
 }
@@ -0,0 +1,80 @@
+package io.github.jwharm.javagi.benchmark.glib;
+
+import io.github.jwharm.javagi.interop.ConcurrentLongMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare lookups of cached instances by memory address in a
+ * ConcurrentLongMap with lookups in a ConcurrentHashMap with MemorySegment
+ * keys. Like in the instance cache, every lookup starts with an address that
+ * was received from native code.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AddressMapBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private final ConcurrentHashMap<MemorySegment, Object> segmentMap
+            = new ConcurrentHashMap<>();
+    private final ConcurrentLongMap<Object> longMap
+            = new ConcurrentLongMap<>();
+    private long[] addresses;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int index;
+    }
+
+    @Setup
+    public void setup() {
+        addresses = new long[size];
+
+        // Addresses of 16-byte aligned allocations
+        for (int i = 0; i < size; i++) {
+            addresses[i] = 0x7f0000000000L + i * 16L;
+            Object value = new Object();
+            segmentMap.put(MemorySegment.ofAddress(addresses[i]), value);
+            longMap.put(addresses[i], value);
+        }
+    }
+
+    private long next(Cursor cursor) {
+        int i = cursor.index;
+        cursor.index = i + 1 == size ? 0 : i + 1;
+        return addresses[i];
+    }
+
+    @Benchmark
+    public Object segmentMapGet(Cursor cursor) {
+        return segmentMap.get(MemorySegment.ofAddress(next(cursor)));
+    }
+
+    @Benchmark
+    public Object longMapGet(Cursor cursor) {
+        return longMap.get(next(cursor));
+    }
+
+    @Benchmark
+    public Object segmentMapPutRemove(Cursor cursor) {
+        var key = MemorySegment.ofAddress(next(cursor) + 8);
+        segmentMap.put(key, cursor);
+        return segmentMap.remove(key);
+    }
+
+    @Benchmark
+    public Object longMapPutRemove(Cursor cursor) {
+        long key = next(cursor) + 8;
+        longMap.put(key, cursor);
+        return longMap.remove(key);
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.jwharm.javagi.benchmark.glib;
+
+import io.github.jwharm.javagi.interop.Interop;
+import org.gnome.glib.GLib;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare the cost of a call to a leaf function (g_str_hash) through a
+ * regular downcall handle and through a critical downcall handle. The
+ * "copy" benchmarks allocate and fill a native string for every call, like a
+ * generated wrapper does; the "heap" benchmark passes the Java array directly
+ * to a critical function.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CriticalDowncallBenchmark {
+
+    private static final FunctionDescriptor STR_HASH =
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS);
+
+    private static final byte[] KEY =
+            "java-gi\0".getBytes(StandardCharsets.UTF_8);
+
+    private MethodHandle regular;
+    private MethodHandle critical;
+    private MethodHandle criticalHeap;
+    private Arena arena;
+    private MemorySegment str;
+
+    @Setup
+    public void setup() {
+        GLib.javagi$ensureInitialized();
+        regular = Interop.downcallHandle("g_str_hash", STR_HASH);
+        critical = Interop.criticalDowncallHandle("g_str_hash", STR_HASH, false);
+        criticalHeap = Interop.criticalDowncallHandle("g_str_hash", STR_HASH, true);
+        arena = Arena.ofConfined();
+        str = arena.allocateFrom(ValueLayout.JAVA_BYTE, KEY);
+    }
+
+    @TearDown
+    public void tearDown() {
+        arena.close();
+    }
+
+    @Benchmark
+    public int regular() throws Throwable {
+        return (int) regular.invokeExact(str);
+    }
+
+    @Benchmark
+    public int critical() throws Throwable {
+        return (int) critical.invokeExact(str);
+    }
+
+    @Benchmark
+    public int regularCopy() throws Throwable {
+        return strHashCopy(regular);
+    }
+
+    @Benchmark
+    public int criticalCopy() throws Throwable {
+        return strHashCopy(critical);
+    }
+
+    @Benchmark
+    public int criticalHeap() throws Throwable {
+        return (int) criticalHeap.invokeExact(MemorySegment.ofArray(KEY));
+    }
+
+    // Copy the string into native memory, like a regular generated wrapper
+    private int strHashCopy(MethodHandle handle) throws Throwable {
+        try (var arena = Arena.ofConfined()) {
+            MemorySegment str = arena.allocateFrom(ValueLayout.JAVA_BYTE, KEY);
+            return (int) handle.invokeExact(str);
+        }
+    }
+}
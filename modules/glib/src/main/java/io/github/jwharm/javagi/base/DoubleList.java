@@ -0,0 +1,99 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.base;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * A read-only list view of a native {@code double} array. The elements are read
+ * from native memory when they are accessed; nothing is copied up front.
+ * <p>
+ * The list is only valid as long as the native array is. When the array is
+ * owned by the list, it is freed after the list has been garbage-collected.
+ */
+public final class DoubleList extends AbstractList<Double> implements RandomAccess {
+
+    private final MemorySegment segment;
+    private final int size;
+
+    /**
+     * Create a list view of a native {@code double} array.
+     *
+     * @param segment the native array, with the size of the array
+     */
+    public DoubleList(MemorySegment segment) {
+        this.segment = segment;
+        this.size = (int) (segment.byteSize() / ValueLayout.JAVA_DOUBLE.byteSize());
+    }
+
+    /**
+     * Get the element at the specified position without boxing it.
+     *
+     * @param  index index of the element
+     * @return the element
+     */
+    public double getDouble(int index) {
+        return segment.getAtIndex(ValueLayout.JAVA_DOUBLE, index);
+    }
+
+    @Override
+    public Double get(int index) {
+        return getDouble(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copy elements into the provided Java array.
+     *
+     * @param fromIndex index of the first element to copy
+     * @param dst       the destination array
+     * @param dstIndex  position of the first element in the destination array
+     * @param count     number of elements to copy
+     */
+    public void copyTo(int fromIndex, double[] dst, int dstIndex, int count) {
+        MemorySegment.copy(segment, ValueLayout.JAVA_DOUBLE, fromIndex * ValueLayout.JAVA_DOUBLE.byteSize(),
+                dst, dstIndex, count);
+    }
+
+    /**
+     * Copy all elements into a new Java array.
+     *
+     * @return a new array with the elements of this list
+     */
+    public double[] toDoubleArray() {
+        return segment.toArray(ValueLayout.JAVA_DOUBLE);
+    }
+
+    /**
+     * Get the native memory segment of this list.
+     *
+     * @return the native array
+     */
+    public MemorySegment segment() {
+        return segment;
+    }
+}
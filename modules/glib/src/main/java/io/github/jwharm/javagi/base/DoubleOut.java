@@ -0,0 +1,86 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.base;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An {@link Out} parameter that holds a primitive {@code double} value.
+ * Generated methods write the result of a {@code double} out-parameter
+ * directly into this object, without boxing. Use {@link #getAsDouble()} to
+ * read the value without boxing it.
+ */
+public class DoubleOut extends Out<Double> {
+
+    private double value;
+
+    /**
+     * Create a DoubleOut object with initial value {@code 0.0}.
+     */
+    public DoubleOut() {
+    }
+
+    /**
+     * Create a DoubleOut object and set the initial value.
+     *
+     * @param value the initial value
+     */
+    public DoubleOut(double value) {
+        this.value = value;
+    }
+
+    /**
+     * Get the value from the out-parameter.
+     *
+     * @return the value of the out-parameter
+     */
+    public double getAsDouble() {
+        return value;
+    }
+
+    /**
+     * Set the parameter to the provided value.
+     *
+     * @param value the value to set
+     */
+    public void set(double value) {
+        this.value = value;
+    }
+
+    /**
+     * Get the value from the out-parameter as a boxed value.
+     *
+     * @return the value of the out-parameter
+     */
+    @Override
+    public Double get() {
+        return value;
+    }
+
+    /**
+     * Set the parameter to the provided value.
+     *
+     * @param value the value to set, must not be {@code null}
+     */
+    @Override
+    public void set(Double value) {
+        this.value = requireNonNull(value);
+    }
+}
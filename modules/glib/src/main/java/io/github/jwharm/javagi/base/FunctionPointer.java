@@ -35,4 +35,17 @@ public interface FunctionPointer {
      * @return the newly created function pointer
      */
     MemorySegment toCallback(Arena arena);
+
+    /**
+     * Get a function pointer that is shared by all callbacks of this type.
+     * The shared function pointer expects the id of a callback instance that
+     * is registered in {@link io.github.jwharm.javagi.interop.SharedUpcalls}
+     * as the user_data argument.
+     *
+     * @return the shared function pointer, or {@code null} if this callback
+     *         type does not support shared function pointers
+     */
+    default MemorySegment toSharedCallback() {
+        return null;
+    }
 }
@@ -0,0 +1,93 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.base;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+/**
+ * A read-only list view of a native array of pointers. A Proxy instance for
+ * an element is created when the element is first accessed, and is reused
+ * after that. {@code NULL} elements are returned as {@code null}.
+ * <p>
+ * The list is only valid as long as the native array is. When the array is
+ * owned by the list, it is freed after the list has been garbage-collected.
+ *
+ * @param <T> the type of the Proxy instances
+ */
+public final class ProxyList<T extends Proxy> extends AbstractList<T> implements RandomAccess {
+
+    private final MemorySegment segment;
+    private final Function<MemorySegment, T> make;
+    private final Object[] elements;
+
+    /**
+     * Create a list view of a native array of pointers.
+     *
+     * @param segment the native array, with the size of the array
+     * @param make    constructor of the Proxy type
+     */
+    public ProxyList(MemorySegment segment, Function<MemorySegment, T> make) {
+        this.segment = segment;
+        this.make = make;
+        this.elements = new Object[(int) (segment.byteSize() / ValueLayout.ADDRESS.byteSize())];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        Object element = elements[index];
+        if (element == null) {
+            MemorySegment address = segment.getAtIndex(ValueLayout.ADDRESS, index);
+            if (MemorySegment.NULL.equals(address))
+                return null;
+            element = elements[index] = make.apply(address);
+        }
+        return (T) element;
+    }
+
+    @Override
+    public int size() {
+        return elements.length;
+    }
+
+    /**
+     * Get the native memory address of the element at the specified
+     * position, without creating a Proxy instance.
+     *
+     * @param  index index of the element
+     * @return the memory address of the element
+     */
+    public MemorySegment getAddress(int index) {
+        return segment.getAtIndex(ValueLayout.ADDRESS, index);
+    }
+
+    /**
+     * Get the native memory segment of this list.
+     *
+     * @return the native array
+     */
+    public MemorySegment segment() {
+        return segment;
+    }
+}
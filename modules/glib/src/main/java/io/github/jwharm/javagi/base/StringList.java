@@ -0,0 +1,84 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.base;
+
+import io.github.jwharm.javagi.interop.Interop;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * A read-only list view of a native array of strings. A string is decoded
+ * from native memory when it is first accessed, and is reused after that.
+ * <p>
+ * The list is only valid as long as the native array is. When the array is
+ * owned by the list, the array and the strings are freed after the list has
+ * been garbage-collected.
+ */
+public final class StringList extends AbstractList<String> implements RandomAccess {
+
+    private final MemorySegment segment;
+    private final String[] elements;
+
+    /**
+     * Create a list view of a native array of strings.
+     *
+     * @param segment the native array, with the size of the array
+     */
+    public StringList(MemorySegment segment) {
+        this.segment = segment;
+        this.elements = new String[(int) (segment.byteSize() / ValueLayout.ADDRESS.byteSize())];
+    }
+
+    @Override
+    public String get(int index) {
+        String element = elements[index];
+        if (element == null)
+            element = elements[index] = Interop.getStringFrom(getAddress(index));
+        return element;
+    }
+
+    @Override
+    public int size() {
+        return elements.length;
+    }
+
+    /**
+     * Get the native memory address of the string at the specified position,
+     * without decoding it.
+     *
+     * @param  index index of the string
+     * @return the memory address of the string
+     */
+    public MemorySegment getAddress(int index) {
+        return segment.getAtIndex(ValueLayout.ADDRESS, index);
+    }
+
+    /**
+     * Get the native memory segment of this list.
+     *
+     * @return the native array
+     */
+    public MemorySegment segment() {
+        return segment;
+    }
+}
@@ -0,0 +1,155 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 the Java-GI developers
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.interop;
+
+import io.github.jwharm.javagi.base.GLibLogger;
+
+import java.lang.foreign.Arena;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Couples the lifetime of memory arenas to the lifetime of Java objects.
+ * <p>
+ * All attached arenas are tracked by one shared daemon thread. When the
+ * owner of an arena is garbage-collected, the thread closes the arena. Arenas
+ * that become unreachable at the same time are closed together in one batch.
+ * <p>
+ * Because the arenas are closed on the reference-processing thread, they must
+ * be closeable from any thread; normally they are created with
+ * {@link Arena#ofShared()}.
+ */
+public final class ArenaLifecycle {
+
+    // Maximum number of arenas that are closed in one batch
+    private static final int BATCH_SIZE = 64;
+
+    private static final ReferenceQueue<Object> QUEUE = new ReferenceQueue<>();
+
+    // Keeps the phantom references reachable until they are processed
+    private static final Set<ArenaRef> REFS = ConcurrentHashMap.newKeySet();
+
+    private static final LongAdder ATTACHED = new LongAdder();
+    private static final LongAdder CLOSED = new LongAdder();
+
+    static {
+        Thread thread = new Thread(ArenaLifecycle::processQueue,
+                                   "java-gi-arena-cleaner");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Prevent instantiation
+    private ArenaLifecycle() {
+    }
+
+    /**
+     * Close {@code arena} when {@code owner} is garbage-collected.
+     *
+     * @param  arena an arena that can be closed from another thread (normally
+     *               {@link Arena#ofShared()})
+     * @param  owner the object that determines the lifetime of the arena
+     * @return the arena (for method chaining)
+     */
+    public static Arena attach(Arena arena, Object owner) {
+        requireNonNull(arena);
+        requireNonNull(owner);
+        REFS.add(new ArenaRef(owner, arena));
+        ATTACHED.increment();
+        return arena;
+    }
+
+    /**
+     * Get the number of attached arenas that have not been closed yet.
+     *
+     * @return the number of live arenas
+     */
+    public static long liveArenas() {
+        return ATTACHED.sum() - CLOSED.sum();
+    }
+
+    /**
+     * Get the total number of arenas that have been attached.
+     *
+     * @return the number of attached arenas
+     */
+    public static long attachedArenas() {
+        return ATTACHED.sum();
+    }
+
+    /**
+     * Get the total number of arenas that have been closed after their owner
+     * was garbage-collected.
+     *
+     * @return the number of closed arenas
+     */
+    public static long closedArenas() {
+        return CLOSED.sum();
+    }
+
+    private static void processQueue() {
+        List<ArenaRef> batch = new ArrayList<>(BATCH_SIZE);
+        while (true) {
+            try {
+                // Block until an owner is collected, then drain what is ready
+                Reference<?> ref = QUEUE.remove();
+                do {
+                    batch.add((ArenaRef) ref);
+                } while (batch.size() < BATCH_SIZE
+                        && (ref = QUEUE.poll()) != null);
+
+                for (ArenaRef arenaRef : batch)
+                    arenaRef.close();
+            } catch (InterruptedException ignored) {
+                // The thread is a daemon; keep processing until shutdown
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private static final class ArenaRef extends PhantomReference<Object> {
+        private final Arena arena;
+
+        ArenaRef(Object owner, Arena arena) {
+            super(owner, QUEUE);
+            this.arena = arena;
+        }
+
+        void close() {
+            REFS.remove(this);
+            try {
+                arena.close();
+            } catch (RuntimeException e) {
+                GLibLogger.debug("Cannot close arena: %s", e.toString());
+            } finally {
+                CLOSED.increment();
+            }
+        }
+    }
+}
@@ -22,18 +22,23 @@ package io.github.jwharm.javagi.interop;
 import java.lang.foreign.*;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Keeps a list of open Arenas that will be closed in a DestroyNotify callback.
- * The DestroyNotify callback will know which Arena to close, based on the
- * hashcode that is passed in the user_data parameter.
+ * Keeps a table of open Arenas that will be closed in a DestroyNotify
+ * callback. Every Arena is registered with a unique id, that is passed
+ * directly as the user_data pointer. The DestroyNotify callback will know
+ * which Arena to close, based on that id.
  */
 public class Arenas {
 
     // Contains all open callback arenas that are closed using DestroyNotify
-    private static final Map<Integer, Arena> ARENAS = new HashMap<>();
+    private static final Map<Long, Arena> ARENAS = new ConcurrentHashMap<>();
+
+    // Source of unique ids. Id 0 is never used, so user_data is never NULL.
+    private static final AtomicLong NEXT_ID = new AtomicLong(1);
 
     /**
      * The upcall stub for the DestroyNotify callback method
@@ -56,26 +61,35 @@ public class Arenas {
      * This is called by native code when it runs the DestroyNotify callback.
      * It will close the accompanying Arena.
      *
-     * @param data pointer to the hashcode of the Arena to close
+     * @param data the id of the Arena to close, passed as a pointer value
      */
     public static void close_cb(MemorySegment data) {
-        int hashCode = data.reinterpret(ValueLayout.JAVA_INT.byteSize())
-                           .get(ValueLayout.JAVA_INT, 0);
-        Arena arena = ARENAS.remove(hashCode);
+        Arena arena = ARENAS.remove(data.address());
         if (arena != null)
             arena.close();
     }
 
     /**
-     * This will add the Arena to the global static list of open arenas, and
-     * return a pointer to the hashcode of the Arena.
+     * This will add the Arena to the global table of open arenas, and
+     * return a unique id for the Arena, encoded as a pointer value. No memory
+     * is allocated for the id.
      *
      * @param  arena the Arena to cache
-     * @return a pointer to the hashcode of the Arena
+     * @return the id of the Arena, to be passed as user_data
      */
     public static MemorySegment cacheArena(Arena arena) {
-        int hashCode = arena.hashCode();
-        ARENAS.put(hashCode, arena);
-        return arena.allocateFrom(ValueLayout.JAVA_INT, hashCode);
+        long id = NEXT_ID.getAndIncrement();
+        ARENAS.put(id, arena);
+        return MemorySegment.ofAddress(id);
+    }
+
+    /**
+     * Get the number of open arenas that are waiting for a DestroyNotify
+     * callback.
+     *
+     * @return the number of open arenas
+     */
+    public static long openArenas() {
+        return ARENAS.size();
     }
 }
@@ -0,0 +1,241 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 the Java-GI developers
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.interop;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongFunction;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A concurrent hash map with primitive {@code long} keys, such as GTypes and
+ * memory addresses. Keys are never boxed.
+ * <p>
+ * The map is an open-addressing table with linear probing. Lookups do not
+ * lock and do not allocate. Updates are serialized on the map instance.
+ * Values must not be {@code null}.
+ *
+ * @param <V> the type of the values
+ */
+public final class ConcurrentLongMap<V> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    // Marks a removed entry, so lookups continue probing past it
+    private static final Entry<?> TOMBSTONE = new Entry<>(0, null);
+
+    private volatile AtomicReferenceArray<Entry<V>> table =
+            new AtomicReferenceArray<>(MIN_CAPACITY);
+
+    // Number of entries, and number of occupied slots including tombstones
+    private int size = 0;
+    private int used = 0;
+
+    private record Entry<V>(long key, V value) {
+    }
+
+    /**
+     * Get the value for the provided key.
+     *
+     * @param  key the key
+     * @return the value, or {@code null} if the key is not in the map
+     */
+    public V get(long key) {
+        var tab = table;
+        int mask = tab.length() - 1;
+        for (int i = index(key, mask); ; i = (i + 1) & mask) {
+            Entry<V> e = tab.getAcquire(i);
+            if (e == null)
+                return null;
+            if (e != TOMBSTONE && e.key == key)
+                return e.value;
+        }
+    }
+
+    /**
+     * Check whether the map contains the provided key.
+     *
+     * @param  key the key
+     * @return whether the key is in the map
+     */
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Set the value for the provided key, replacing an existing value.
+     *
+     * @param  key   the key
+     * @param  value the new value
+     * @return the previous value, or {@code null} if the key was not in the map
+     */
+    public synchronized V put(long key, V value) {
+        return insert(key, requireNonNull(value), true);
+    }
+
+    /**
+     * Set the value for the provided key, unless the key is already in the
+     * map.
+     *
+     * @param  key   the key
+     * @param  value the new value
+     * @return the existing value, or {@code null} if the value was added
+     */
+    public synchronized V putIfAbsent(long key, V value) {
+        return insert(key, requireNonNull(value), false);
+    }
+
+    /**
+     * Get the value for the provided key. If the key is not in the map, the
+     * value is computed with the provided function and added to the map.
+     * The function runs while the map is locked, so it should be short and
+     * must not update the map.
+     *
+     * @param  key      the key
+     * @param  function the function that computes a value for the key
+     * @return the existing or computed value
+     */
+    public V computeIfAbsent(long key, LongFunction<? extends V> function) {
+        V value = get(key);
+        if (value != null)
+            return value;
+
+        synchronized (this) {
+            value = get(key);
+            if (value == null) {
+                value = requireNonNull(function.apply(key));
+                insert(key, value, false);
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Remove the value for the provided key.
+     *
+     * @param  key the key
+     * @return the removed value, or {@code null} if the key was not in the map
+     */
+    public synchronized V remove(long key) {
+        return delete(key, null);
+    }
+
+    /**
+     * Remove the value for the provided key, if it is currently set to the
+     * provided value.
+     *
+     * @param  key   the key
+     * @param  value the expected value
+     * @return whether the value was removed
+     */
+    public synchronized boolean remove(long key, V value) {
+        return delete(key, requireNonNull(value)) != null;
+    }
+
+    /**
+     * Get the number of entries in the map.
+     *
+     * @return the number of entries
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    // Must be called while synchronized
+    private V insert(long key, V value, boolean replace) {
+        var tab = table;
+        int mask = tab.length() - 1;
+        int free = -1;
+        for (int i = index(key, mask); ; i = (i + 1) & mask) {
+            Entry<V> e = tab.get(i);
+            if (e == null) {
+                if (free == -1) {
+                    free = i;
+                    used++;
+                }
+                break;
+            }
+            if (e == TOMBSTONE) {
+                if (free == -1)
+                    free = i;
+            } else if (e.key == key) {
+                if (replace)
+                    tab.setRelease(i, new Entry<>(key, value));
+                return e.value;
+            }
+        }
+
+        tab.setRelease(free, new Entry<>(key, value));
+        size++;
+        if (used * 2 > tab.length())
+            resize();
+        return null;
+    }
+
+    // Must be called while synchronized
+    private V delete(long key, V expected) {
+        var tab = table;
+        int mask = tab.length() - 1;
+        for (int i = index(key, mask); ; i = (i + 1) & mask) {
+            Entry<V> e = tab.get(i);
+            if (e == null)
+                return null;
+            if (e != TOMBSTONE && e.key == key) {
+                if (expected != null && expected != e.value)
+                    return null;
+                tab.setRelease(i, tombstone());
+                size--;
+                return e.value;
+            }
+        }
+    }
+
+    // Rebuild the table without tombstones, and publish it
+    private void resize() {
+        var tab = table;
+        int capacity = MIN_CAPACITY;
+        while (capacity < size * 4)
+            capacity <<= 1;
+
+        var newTab = new AtomicReferenceArray<Entry<V>>(capacity);
+        int mask = capacity - 1;
+        for (int j = 0; j < tab.length(); j++) {
+            Entry<V> e = tab.get(j);
+            if (e == null || e == TOMBSTONE)
+                continue;
+            int i = index(e.key, mask);
+            while (newTab.get(i) != null)
+                i = (i + 1) & mask;
+            newTab.set(i, e);
+        }
+        used = size;
+        table = newTab;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Entry<V> tombstone() {
+        return (Entry<V>) TOMBSTONE;
+    }
+
+    private static int index(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -21,10 +21,10 @@ package io.github.jwharm.javagi.interop;
 
 import java.lang.foreign.*;
 import java.lang.invoke.*;
-import java.lang.ref.Cleaner;
 import java.lang.reflect.Array;
 import java.util.*;
 import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import io.github.jwharm.javagi.base.Enumeration;
@@ -51,9 +51,27 @@ public class Interop {
 
     private final static Linker LINKER = Linker.nativeLinker();
 
+    private final static FunctionDescriptor GET_TYPE_FDESC =
+            FunctionDescriptor.of(ValueLayout.JAVA_LONG);
+
     private static SymbolLookup symbolLookup = SymbolLookup.loaderLookup()
             .or(Linker.nativeLinker().defaultLookup());
 
+    /*
+     * Linked downcall handles, keyed by function name, descriptor, whether
+     * the function is variadic and the linker options. Functions that are not
+     * found, are not cached: they can become available after another library
+     * is loaded.
+     */
+    private static final Map<DowncallKey, MethodHandle> downcallHandles
+            = new ConcurrentHashMap<>();
+
+    private record DowncallKey(String name,
+                               FunctionDescriptor fdesc,
+                               boolean variadic,
+                               List<Linker.Option> options) {
+    }
+
     public static boolean longAsInt() {
         return LONG_AS_INT;
     }
@@ -88,20 +106,98 @@ public class Interop {
     }
 
     /**
-     * Create a method handle that is used to call the native function with
-     * the provided name and function descriptor.
+     * Get a method handle that is used to call the native function with
+     * the provided name and function descriptor. The method handle is linked
+     * on first use, and cached for subsequent calls with the same arguments.
      *
      * @param  name     name of the native function
      * @param  fdesc    function descriptor of the native function
      * @param  variadic whether the function has varargs
-     * @return the newly created MethodHandle
+     * @return the MethodHandle, or {@code null} if the function was not found
      */
     public static MethodHandle downcallHandle(String name,
                                               FunctionDescriptor fdesc,
                                               boolean variadic) {
-        return symbolLookup.find(name).map(addr -> variadic
+        var key = new DowncallKey(name, fdesc, variadic, List.of());
+        MethodHandle handle = downcallHandles.get(key);
+        if (handle != null)
+            return handle;
+
+        handle = symbolLookup.find(name).map(addr -> variadic
                 ? VarargsInvoker.create(addr, fdesc)
                 : LINKER.downcallHandle(addr, fdesc)).orElse(null);
+
+        return cacheDowncallHandle(key, handle);
+    }
+
+    /**
+     * Get a method handle that is used to call a variadic native function
+     * with a fixed set of variadic arguments. The function descriptor
+     * contains the layouts of both the fixed and the variadic arguments, so
+     * the method handle can be invoked with primitive arguments, without
+     * the boxing and per-call marshaling of
+     * {@link #downcallHandle(String, FunctionDescriptor, boolean)}.
+     * The method handle is linked on first use, and cached for subsequent
+     * calls with the same arguments.
+     *
+     * @param  name             name of the native function
+     * @param  fdesc            function descriptor of the native function,
+     *                          including the (promoted) variadic arguments
+     * @param  firstVariadicArg index of the first variadic argument
+     * @return the MethodHandle, or {@code null} if the function was not found
+     */
+    public static MethodHandle downcallHandle(String name,
+                                              FunctionDescriptor fdesc,
+                                              int firstVariadicArg) {
+        var fva = Linker.Option.firstVariadicArg(firstVariadicArg);
+        return downcallHandle(name, fdesc, true, fva);
+    }
+
+    /**
+     * Get a method handle that is used to call a short-running native
+     * function that does not call back into Java. The function is linked with
+     * {@link Linker.Option#critical(boolean)}, which removes the overhead of
+     * the thread state transition. Garbage collection is blocked while the
+     * function runs. The method handle is linked on first use, and cached for
+     * subsequent calls with the same arguments.
+     *
+     * @param  name            name of the native function
+     * @param  fdesc           function descriptor of the native function
+     * @param  allowHeapAccess whether heap memory segments (such as
+     *                         {@link MemorySegment#ofArray(int[])}) can be
+     *                         passed as pointer arguments
+     * @return the MethodHandle, or {@code null} if the function was not found
+     */
+    public static MethodHandle criticalDowncallHandle(String name,
+                                                      FunctionDescriptor fdesc,
+                                                      boolean allowHeapAccess) {
+        var critical = Linker.Option.critical(allowHeapAccess);
+        return downcallHandle(name, fdesc, false, critical);
+    }
+
+    private static MethodHandle downcallHandle(String name,
+                                               FunctionDescriptor fdesc,
+                                               boolean variadic,
+                                               Linker.Option option) {
+        var key = new DowncallKey(name, fdesc, variadic, List.of(option));
+        MethodHandle handle = downcallHandles.get(key);
+        if (handle != null)
+            return handle;
+
+        handle = symbolLookup.find(name)
+                .map(addr -> LINKER.downcallHandle(addr, fdesc, option))
+                .orElse(null);
+
+        return cacheDowncallHandle(key, handle);
+    }
+
+    private static MethodHandle cacheDowncallHandle(DowncallKey key,
+                                                    MethodHandle handle) {
+        if (handle == null)
+            return null;
+
+        var existing = downcallHandles.putIfAbsent(key, handle);
+        return existing == null ? handle : existing;
     }
 
     /**
@@ -153,19 +249,18 @@ public class Interop {
     }
 
     /**
-     * Register a Cleaner that will close the arena when the instance is
-     * garbage-collected, coupling the lifetime of the arena to the lifetime of
-     * the instance.
+     * Close the arena when the instance is garbage-collected, coupling the
+     * lifetime of the arena to the lifetime of the instance.
+     * <p>
+     * The arena is closed by the shared {@link ArenaLifecycle} thread.
      *
-     * @param  arena    a memory arena that can be closed (normally
-     *                  {@link Arena#ofConfined()} or {@link Arena#ofAuto()}.
+     * @param  arena    a memory arena that can be closed from another thread
+     *                  (normally {@link Arena#ofShared()})
      * @param  instance an object
      * @return the arena (for method chaining)
      */
     public static Arena attachArena(Arena arena, Object instance) {
-        Cleaner cleaner = Cleaner.create();
-        cleaner.register(instance, arena::close);
-        return arena;
+        return ArenaLifecycle.attach(arena, instance);
     }
 
     /**
@@ -225,13 +320,11 @@ public class Interop {
         if (getTypeFunction == null)
             return null;
 
-        FunctionDescriptor fdesc = FunctionDescriptor.of(ValueLayout.JAVA_LONG);
-
         try {
-            MethodHandle handle = downcallHandle(getTypeFunction, fdesc, false);
+            MethodHandle handle = downcallHandle(getTypeFunction, GET_TYPE_FDESC, false);
             if (handle == null)
                 return null;
-            return new Type((long) handle.invokeExact());
+            return Type.of((long) handle.invokeExact());
         } catch (Throwable err) {
             throw new AssertionError("Unexpected exception occurred: ", err);
         }
@@ -975,15 +1068,7 @@ public class Interop {
         if (address == null || NULL.equals(address))
             return null;
 
-        MemorySegment array = reinterpret(address, LONG_UNBOUNDED);
-
-        long offset = 0;
-        while (!NULL.equals(
-                        array.get(ValueLayout.ADDRESS, offset))) {
-            offset += ValueLayout.ADDRESS.byteSize();
-        }
-
-        return getProxyArrayFrom(address, (int) offset, cls, make);
+        return getProxyArrayFrom(address, addressArrayLength(address), cls, make);
     }
 
     /**
@@ -1047,6 +1132,189 @@ public class Interop {
         return result;
     }
 
+    /**
+     * Create a list view of a native array of integers with the requested
+     * length. The integers are not copied.
+     *
+     * @param  address address of the memory segment
+     * @param  length  length of the array
+     * @param  free    if the array must be freed when the list is
+     *                 garbage-collected
+     * @return list view of the native array
+     */
+    public static IntList getIntegerListFrom(MemorySegment address,
+                                             long length,
+                                             boolean free) {
+        if (address == null || NULL.equals(address))
+            return null;
+
+        long size = ValueLayout.JAVA_INT.byteSize();
+        return new IntList(view(address, size * length, free));
+    }
+
+    /**
+     * Create a list view of a {@code 0}-terminated native array of integers.
+     * The integers are not copied.
+     *
+     * @param  address address of the memory segment
+     * @param  free    if the array must be freed when the list is
+     *                 garbage-collected
+     * @return list view of the native array
+     */
+    public static IntList getIntegerListFrom(MemorySegment address,
+                                             boolean free) {
+        if (address == null || NULL.equals(address))
+            return null;
+
+        MemorySegment array = address.reinterpret(LONG_UNBOUNDED);
+        long idx = 0;
+        while (array.getAtIndex(ValueLayout.JAVA_INT, idx) != 0) {
+            idx++;
+        }
+
+        return getIntegerListFrom(address, idx, free);
+    }
+
+    /**
+     * Create a list view of a native array of doubles with the requested
+     * length. The doubles are not copied.
+     *
+     * @param  address address of the memory segment
+     * @param  length  length of the array
+     * @param  free    if the array must be freed when the list is
+     *                 garbage-collected
+     * @return list view of the native array
+     */
+    public static DoubleList getDoubleListFrom(MemorySegment address,
+                                               long length,
+                                               boolean free) {
+        if (address == null || NULL.equals(address))
+            return null;
+
+        long size = ValueLayout.JAVA_DOUBLE.byteSize();
+        return new DoubleList(view(address, size * length, free));
+    }
+
+    /**
+     * Create a list view of a native array of strings with the requested
+     * length. The strings are decoded when they are accessed.
+     *
+     * @param  address address of the memory segment
+     * @param  length  length of the array
+     * @param  free    if the strings and the array must be freed when the
+     *                 list is garbage-collected
+     * @return list view of the native array
+     */
+    public static StringList getStringListFrom(MemorySegment address,
+                                               int length,
+                                               boolean free) {
+        if (address == null || NULL.equals(address))
+            return null;
+
+        long size = ValueLayout.ADDRESS.byteSize() * length;
+        if (!free)
+            return new StringList(address.reinterpret(size));
+
+        // Free the strings and the array
+        return new StringList(address.reinterpret(size, Arena.ofAuto(), array -> {
+            var strings = array.reinterpret(size);
+            for (int i = 0; i < length; i++)
+                GLib.free(strings.getAtIndex(ValueLayout.ADDRESS, i));
+            GLib.free(array);
+        }));
+    }
+
+    /**
+     * Create a list view of a {@code NULL}-terminated native array of
+     * strings. The strings are decoded when they are accessed.
+     *
+     * @param  address address of the memory segment
+     * @param  free    if the strings and the array must be freed when the
+     *                 list is garbage-collected
+     * @return list view of the native array
+     */
+    public static StringList getStringListFrom(MemorySegment address,
+                                               boolean free) {
+        if (address == null || NULL.equals(address))
+            return null;
+
+        long size = ValueLayout.ADDRESS.byteSize()
+                * addressArrayLength(address);
+        return new StringList(free
+                ? address.reinterpret(size, Arena.ofAuto(), GLib::strfreev)
+                : address.reinterpret(size));
+    }
+
+    /**
+     * Create a list view of a native array of memory addresses with the
+     * requested length. A Proxy instance for an address is created when it is
+     * accessed.
+     *
+     * @param  address address of the memory segment
+     * @param  length  length of the array
+     * @param  make    constructor of the Proxy type
+     * @param  free    if the array must be freed when the list is
+     *                 garbage-collected
+     * @param  <T>     the type of the Proxy instances
+     * @return list view of the native array
+     */
+    public static <T extends Proxy>
+    ProxyList<T> getProxyListFrom(MemorySegment address,
+                                  int length,
+                                  Function<MemorySegment, T> make,
+                                  boolean free) {
+        if (address == null || NULL.equals(address))
+            return null;
+
+        long size = ValueLayout.ADDRESS.byteSize();
+        return new ProxyList<>(view(address, size * length, free), make);
+    }
+
+    /**
+     * Create a list view of a {@code NULL}-terminated native array of memory
+     * addresses. A Proxy instance for an address is created when it is
+     * accessed.
+     *
+     * @param  address address of the memory segment
+     * @param  make    constructor of the Proxy type
+     * @param  free    if the array must be freed when the list is
+     *                 garbage-collected
+     * @param  <T>     the type of the Proxy instances
+     * @return list view of the native array
+     */
+    public static <T extends Proxy>
+    ProxyList<T> getProxyListFrom(MemorySegment address,
+                                  Function<MemorySegment, T> make,
+                                  boolean free) {
+        if (address == null || NULL.equals(address))
+            return null;
+
+        return getProxyListFrom(address, addressArrayLength(address), make, free);
+    }
+
+    /*
+     * Resize the segment to the native array. When the array must be freed,
+     * it is freed after the segment has become unreachable.
+     */
+    private static MemorySegment view(MemorySegment address,
+                                      long byteSize,
+                                      boolean free) {
+        return free
+                ? address.reinterpret(byteSize, Arena.ofAuto(), GLib::free)
+                : address.reinterpret(byteSize);
+    }
+
+    /*
+     * Count the elements of a NULL-terminated array of pointers.
+     */
+    private static int addressArrayLength(MemorySegment address) {
+        MemorySegment array = reinterpret(address, LONG_UNBOUNDED);
+        int length = 0;
+        while (!NULL.equals(array.getAtIndex(ValueLayout.ADDRESS, length)))
+            length++;
+        return length;
+    }
+
     /**
      * Read an array of integers from native memory, create a Java instance for
      * each integer value with the provided constructor, and return an array of
@@ -1397,4 +1665,102 @@ public class Interop {
             values[i] = array[i].getValue();
         return values;
     }
+
+    /**
+     * Set the value of an out-parameter. When {@code out} is {@link IntOut},
+     * the value is not boxed.
+     *
+     * @param out   the out-parameter
+     * @param value the value to set
+     */
+    public static void setOut(Out<Integer> out, int value) {
+        if (out instanceof IntOut primitiveOut)
+            primitiveOut.set(value);
+        else
+            out.set(value);
+    }
+
+    /**
+     * Set the value of an out-parameter. When {@code out} is {@link LongOut},
+     * the value is not boxed.
+     *
+     * @param out   the out-parameter
+     * @param value the value to set
+     */
+    public static void setOut(Out<Long> out, long value) {
+        if (out instanceof LongOut primitiveOut)
+            primitiveOut.set(value);
+        else
+            out.set(value);
+    }
+
+    /**
+     * Set the value of an out-parameter. When {@code out} is {@link DoubleOut},
+     * the value is not boxed.
+     *
+     * @param out   the out-parameter
+     * @param value the value to set
+     */
+    public static void setOut(Out<Double> out, double value) {
+        if (out instanceof DoubleOut primitiveOut)
+            primitiveOut.set(value);
+        else
+            out.set(value);
+    }
+
+    /**
+     * Set the value of an out-parameter. When {@code out} is {@link FloatOut},
+     * the value is not boxed.
+     *
+     * @param out   the out-parameter
+     * @param value the value to set
+     */
+    public static void setOut(Out<Float> out, float value) {
+        if (out instanceof FloatOut primitiveOut)
+            primitiveOut.set(value);
+        else
+            out.set(value);
+    }
+
+    /**
+     * Set the value of an out-parameter. When {@code out} is {@link BooleanOut},
+     * the value is not boxed.
+     *
+     * @param out   the out-parameter
+     * @param value the value to set
+     */
+    public static void setOut(Out<Boolean> out, boolean value) {
+        if (out instanceof BooleanOut primitiveOut)
+            primitiveOut.set(value);
+        else
+            out.set(value);
+    }
+
+    /**
+     * Set the value of an out-parameter. When {@code out} is {@link ShortOut},
+     * the value is not boxed.
+     *
+     * @param out   the out-parameter
+     * @param value the value to set
+     */
+    public static void setOut(Out<Short> out, short value) {
+        if (out instanceof ShortOut primitiveOut)
+            primitiveOut.set(value);
+        else
+            out.set(value);
+    }
+
+    /**
+     * Set the value of an out-parameter. When {@code out} is {@link ByteOut},
+     * the value is not boxed.
+     *
+     * @param out   the out-parameter
+     * @param value the value to set
+     */
+    public static void setOut(Out<Byte> out, byte value) {
+        if (out instanceof ByteOut primitiveOut)
+            primitiveOut.set(value);
+        else
+            out.set(value);
+    }
 }
@@ -19,8 +19,10 @@
 
 package io.github.jwharm.javagi.interop;
 
+import io.github.jwharm.javagi.Constants;
 import io.github.jwharm.javagi.base.Proxy;
 import org.gnome.glib.GLib;
+import org.gnome.glib.LogLevelFlags;
 import org.gnome.glib.Type;
 import org.jetbrains.annotations.NotNull;
 
@@ -29,8 +31,8 @@ import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
 import java.lang.invoke.MethodHandle;
 import java.lang.ref.Cleaner;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.util.Objects.requireNonNull;
 
@@ -48,39 +50,72 @@ import static java.util.Objects.requireNonNull;
  * will not free the memory. Ownership is enabled/disabled with
  * {@link #takeOwnership(Proxy)} and
  * {@link #yieldOwnership(Proxy)}.
+ * <p>
+ * The cache is split into a fixed number of stripes, selected by a hash of
+ * the memory address. Each stripe is an open-addressing table with its own
+ * lock, so registrations and finalizations for unrelated addresses don't
+ * contend with each other. The state of a cached address is updated in
+ * place.
  */
 public class MemoryCleaner {
 
     private static final Cleaner CLEANER = Cleaner.create();
-    private static final Map<MemorySegment, Cached> cache = new HashMap<>();
+
+    private static final FunctionDescriptor FREE_FUNC_FDESC =
+            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS);
+
+    /*
+     * Linked free-functions, by name. Functions that are not found, are not
+     * cached: they can become available after another library is loaded.
+     */
+    private static final Map<String, MethodHandle> freeFuncs =
+            new ConcurrentHashMap<>();
+
+    // The number of stripes must be a power of two
+    private static final int STRIPES = 64;
+    private static final Stripe[] cache = new Stripe[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++)
+            cache[i] = new Stripe();
+    }
+
+    /*
+     * Native addresses are aligned, so the lower bits carry almost no
+     * information. Spread the bits with a multiplicative hash (the 64-bit
+     * golden ratio) before using them to select a stripe or a slot.
+     */
+    private static long hash(long address) {
+        long h = address * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+
+    private static Stripe stripe(long address) {
+        return cache[(int) (hash(address) >>> 58) & (STRIPES - 1)];
+    }
 
     /**
      * Register the memory address of this proxy to be cleaned when the proxy
-     * gets garbage-collected.
+     * gets garbage-collected. The caller must hold the lock on the stripe.
      *
-     * @param proxy The proxy instance
+     * @param stripe the stripe that contains the address
+     * @param proxy  The proxy instance
      */
-    private static @NotNull Cached getOrRegister(@NotNull Proxy proxy) {
-        MemorySegment address = proxy.handle();
-        synchronized (cache) {
-            Cached cached = cache.get(address);
-            if (cached == null) {
-                // Put the address in the cache
-                var finalizer = new StructFinalizer(address);
-                var cleanable = CLEANER.register(proxy, finalizer);
-                cached = new Cached(false, 1, null, null, cleanable);
-                cache.put(address, cached);
-            } else {
-                // Already in the cache: increase the refcount
-                cached = new Cached(false,
-                        cached.references + 1,
-                        cached.freeFunc,
-                        cached.boxedType,
-                        cached.cleanable);
-                cache.put(address, cached);
-            }
-            return cached;
+    private static @NotNull Cached getOrRegister(@NotNull Stripe stripe,
+                                                 @NotNull Proxy proxy) {
+        long address = proxy.handle().address();
+        Cached cached = stripe.get(address);
+        if (cached == null) {
+            // Put the address in the cache
+            cached = new Cached(address);
+            var finalizer = new StructFinalizer(address);
+            cached.cleanable = CLEANER.register(proxy, finalizer);
+            stripe.put(cached);
+        } else {
+            // Already in the cache: increase the refcount
+            cached.references++;
         }
+        return cached;
     }
 
     /**
@@ -94,16 +129,31 @@ public class MemoryCleaner {
                                    @NotNull String freeFunc) {
         requireNonNull(proxy);
         requireNonNull(freeFunc);
-        synchronized (cache) {
-            Cached cached = getOrRegister(proxy);
-            cache.put(proxy.handle(), new Cached(cached.owned,
-                                               cached.references,
-                                               freeFunc,
-                                               cached.boxedType,
-                                               cached.cleanable));
+        // When the function is not found yet, it is resolved again when the
+        // memory is released
+        MethodHandle handle = lookupFreeFunc(freeFunc);
+        Stripe stripe = stripe(proxy.handle().address());
+        synchronized (stripe) {
+            Cached cached = getOrRegister(stripe, proxy);
+            cached.freeFuncName = freeFunc;
+            cached.freeFunc = handle;
         }
     }
 
+    /*
+     * Get the linked free-function with this name, or null if it is not
+     * found.
+     */
+    private static MethodHandle lookupFreeFunc(String name) {
+        MethodHandle handle = freeFuncs.get(name);
+        if (handle != null)
+            return handle;
+        handle = Interop.downcallHandle(name, FREE_FUNC_FDESC, false);
+        if (handle != null)
+            freeFuncs.putIfAbsent(name, handle);
+        return handle;
+    }
+
     /**
      * For a boxed type, {@code g_boxed_free(type, pointer)} will be used as
      * cleanup function.
@@ -115,13 +165,9 @@ public class MemoryCleaner {
                                     @NotNull Type boxedType) {
         requireNonNull(proxy);
         requireNonNull(boxedType);
-        synchronized (cache) {
-            Cached cached = getOrRegister(proxy);
-            cache.put(proxy.handle(), new Cached(cached.owned,
-                                                cached.references,
-                                                cached.freeFunc,
-                                                boxedType,
-                                                cached.cleanable));
+        Stripe stripe = stripe(proxy.handle().address());
+        synchronized (stripe) {
+            getOrRegister(stripe, proxy).boxedType = boxedType;
         }
     }
 
@@ -133,13 +179,9 @@ public class MemoryCleaner {
      */
     public static void takeOwnership(@NotNull Proxy proxy) {
         requireNonNull(proxy);
-        synchronized (cache) {
-            Cached cached = getOrRegister(proxy);
-            cache.put(proxy.handle(), new Cached(true,
-                                               cached.references,
-                                               cached.freeFunc,
-                                               cached.boxedType,
-                                               cached.cleanable));
+        Stripe stripe = stripe(proxy.handle().address());
+        synchronized (stripe) {
+            getOrRegister(stripe, proxy).owned = true;
         }
     }
 
@@ -151,13 +193,9 @@ public class MemoryCleaner {
      */
     public static void yieldOwnership(@NotNull Proxy proxy) {
         requireNonNull(proxy);
-        synchronized (cache) {
-            Cached cached = getOrRegister(proxy);
-            cache.put(proxy.handle(), new Cached(false,
-                                               cached.references,
-                                               cached.freeFunc,
-                                               cached.boxedType,
-                                               cached.cleanable));
+        Stripe stripe = stripe(proxy.handle().address());
+        synchronized (stripe) {
+            getOrRegister(stripe, proxy).owned = false;
         }
     }
 
@@ -168,34 +206,133 @@ public class MemoryCleaner {
      * @param address the memory address to free
      */
     public static void free(MemorySegment address) {
-        synchronized (cache) {
-            Cached cached = cache.get(address);
-            if (cached != null)
-                cached.cleanable.clean();
+        Stripe stripe = stripe(address.address());
+        Cleaner.Cleanable cleanable;
+        synchronized (stripe) {
+            Cached cached = stripe.get(address.address());
+            if (cached == null)
+                return;
+            cleanable = cached.cleanable;
         }
+        // The finalizer acquires the stripe lock itself
+        cleanable.clean();
     }
 
     /**
-     * This record type is cached for each memory address.
-     *
-     * @param owned      whether this address is owned (should be cleaned)
-     * @param references the number of references (active Proxy objects) for
-     *                   this address
-     * @param freeFunc   an (optional) specialized function that will release
-     *                   the native memory
+     * The mutable state that is cached for each memory address. Instances
+     * are only read and written while holding the lock on their stripe.
      */
-    private record Cached(boolean owned,
-                          int references,
-                          String freeFunc,
-                          Type boxedType,
-                          Cleaner.Cleanable cleanable) {
+    private static final class Cached {
+
+        // the memory address
+        final long address;
+
+        // whether this address is owned (should be cleaned)
+        boolean owned = false;
+
+        // the number of references (active Proxy objects) for this address
+        int references = 1;
+
+        // the name of an (optional) specialized function that will release
+        // the native memory
+        String freeFuncName;
+
+        // the specialized function, linked in advance, or null if it was
+        // not found yet
+        MethodHandle freeFunc;
+
+        // the GType, when the memory must be released with g_boxed_free
+        Type boxedType;
+
+        Cleaner.Cleanable cleanable;
+
+        Cached(long address) {
+            this.address = address;
+        }
+    }
+
+    /**
+     * One stripe of the cache: an open-addressing hash table with linear
+     * probing, keyed on the raw memory address. All methods must be called
+     * while holding the lock on the stripe.
+     */
+    private static final class Stripe {
+
+        // Initial capacity (must be a power of two)
+        private static final int INITIAL_CAPACITY = 64;
+
+        private Cached[] table = new Cached[INITIAL_CAPACITY];
+        private int size = 0;
+
+        private int indexOf(long address, int mask) {
+            return (int) hash(address) & mask;
+        }
+
+        Cached get(long address) {
+            int mask = table.length - 1;
+            for (int i = indexOf(address, mask); ; i = (i + 1) & mask) {
+                Cached cached = table[i];
+                if (cached == null || cached.address == address)
+                    return cached;
+            }
+        }
+
+        void put(Cached cached) {
+            // Keep the load factor below 0.5
+            if ((size + 1) * 2 > table.length)
+                resize(table.length * 2);
+            insert(table, cached);
+            size++;
+        }
+
+        Cached remove(long address) {
+            int mask = table.length - 1;
+            int i = indexOf(address, mask);
+            while (table[i] != null && table[i].address != address)
+                i = (i + 1) & mask;
+
+            Cached removed = table[i];
+            if (removed == null)
+                return null;
+
+            // Shift the following entries back, so lookups don't stop at the
+            // emptied slot
+            int hole = i;
+            for (int j = (i + 1) & mask; table[j] != null; j = (j + 1) & mask) {
+                int home = indexOf(table[j].address, mask);
+                // Move the entry if its home slot is not in (hole, j]
+                if (((j - home) & mask) >= ((j - hole) & mask)) {
+                    table[hole] = table[j];
+                    hole = j;
+                }
+            }
+            table[hole] = null;
+            size--;
+            return removed;
+        }
+
+        private void resize(int capacity) {
+            Cached[] newTable = new Cached[capacity];
+            for (Cached cached : table)
+                if (cached != null)
+                    insert(newTable, cached);
+            table = newTable;
+        }
+
+        private void insert(Cached[] target, Cached cached) {
+            int mask = target.length - 1;
+            int i = indexOf(cached.address, mask);
+            while (target[i] != null)
+                i = (i + 1) & mask;
+            target[i] = cached;
+        }
     }
 
     /**
      * This callback is run by the {@link Cleaner} when a struct or union
      * instance has become unreachable, to free the native memory.
      */
-    private record StructFinalizer(MemorySegment address) implements Runnable {
+    private record StructFinalizer(long address) implements Runnable {
 
         private static final MethodHandle g_boxed_free = Interop.downcallHandle(
                 "g_boxed_free",
@@ -209,48 +346,61 @@ public class MemoryCleaner {
          * for this memory address is garbage-collected.
          */
         public void run() {
-            Cached cached;
-            synchronized (cache) {
-                cached = cache.get(address);
+            boolean owned;
+            String freeFuncName;
+            MethodHandle freeFunc;
+            Type boxedType;
+
+            Stripe stripe = stripe(address);
+            synchronized (stripe) {
+                Cached cached = stripe.get(address);
+                if (cached == null)
+                    return;
 
                 // When other references exist, decrease the refcount
                 if (cached.references > 1) {
-                    cache.put(address, new Cached(cached.owned,
-                                                       cached.references - 1,
-                                                       cached.freeFunc,
-                                                       cached.boxedType,
-                                                       cached.cleanable));
+                    cached.references--;
                     return;
                 }
 
                 // When no other references exist, remove the address from the
                 // cache and free the memory
-                cache.remove(address);
+                stripe.remove(address);
+                owned = cached.owned;
+                freeFuncName = cached.freeFuncName;
+                freeFunc = cached.freeFunc;
+                boxedType = cached.boxedType;
             }
 
             // if we don't have ownership, we must not run free()
-            if (!cached.owned) {
+            if (!owned) {
                 return;
             }
 
+            MemorySegment segment = MemorySegment.ofAddress(address);
+
             // run g_free
-            if (cached.freeFunc == null) {
-                GLib.free(address);
+            if (freeFuncName == null) {
+                GLib.free(segment);
                 return;
             }
 
             try {
-                if (cached.boxedType != null) {
+                if (boxedType != null) {
                     // free boxed type
-                    long gtype = cached.boxedType.getValue();
-                    g_boxed_free.invokeExact(gtype, address);
+                    long gtype = boxedType.getValue();
+                    g_boxed_free.invokeExact(gtype, segment);
                 } else {
                     // Run specialized free function
-                    Interop.downcallHandle(
-                            cached.freeFunc,
-                            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS),
-                            false
-                    ).invokeExact(address);
+                    if (freeFunc == null)
+                        freeFunc = lookupFreeFunc(freeFuncName);
+                    if (freeFunc == null) {
+                        GLib.log(Constants.LOG_DOMAIN, LogLevelFlags.LEVEL_WARNING,
+                                "Cannot release memory: function %s not found\n",
+                                freeFuncName);
+                        return;
+                    }
+                    freeFunc.invokeExact(segment);
                 }
             } catch (Throwable err) {
                 throw new AssertionError(err);
@@ -0,0 +1,136 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 the Java-GI developers
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.interop;
+
+import io.github.jwharm.javagi.base.FunctionPointer;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Keeps one upcall stub for callback instances that are passed to native
+ * code repeatedly, for example a lambda that is added as an idle function
+ * many times with {@code GLib.idleAdd}.
+ * <p>
+ * Normally, a new upcall stub is created every time a callback is passed to
+ * native code. When a callback instance is registered here, the generated
+ * {@code toCallback} method returns the registered upcall stub instead.
+ * The stub stays valid until the callback is released with
+ * {@link #release(FunctionPointer)}; the registered callback instance is
+ * kept reachable until then.
+ * {@snippet :
+ * SourceFunc refresh = () -> { ... };
+ * ReusableCallbacks.register(refresh);
+ * // ...
+ * GLib.idleAdd(GLib.PRIORITY_DEFAULT_IDLE, refresh);
+ * }
+ */
+public final class ReusableCallbacks {
+
+    private static final ConcurrentHashMap<Key, Entry> STUBS =
+            new ConcurrentHashMap<>();
+
+    // Callback instances are compared by identity
+    private record Key(FunctionPointer callback) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && k.callback == callback;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(callback);
+        }
+    }
+
+    private record Entry(Arena arena, MemorySegment stub) {
+    }
+
+    // Prevent instantiation
+    private ReusableCallbacks() {
+    }
+
+    /**
+     * Create an upcall stub for the callback, and return it from now on
+     * every time the callback is passed to native code. When the callback
+     * is already registered, the existing upcall stub is returned.
+     *
+     * @param  callback the callback instance
+     * @return the upcall stub
+     */
+    public static MemorySegment register(FunctionPointer callback) {
+        requireNonNull(callback);
+        var key = new Key(callback);
+        Entry existing = STUBS.get(key);
+        if (existing != null)
+            return existing.stub();
+
+        Arena arena = Arena.ofShared();
+        MemorySegment stub = callback.toCallback(arena);
+        Entry entry = STUBS.putIfAbsent(key, new Entry(arena, stub));
+        if (entry != null) {
+            arena.close();
+            return entry.stub();
+        }
+        return stub;
+    }
+
+    /**
+     * Remove the callback from the registry and free its upcall stub. This
+     * must only be called when native code will not call the upcall stub
+     * anymore.
+     *
+     * @param  callback the callback instance
+     * @return whether the callback was registered
+     */
+    public static boolean release(FunctionPointer callback) {
+        Entry entry = STUBS.remove(new Key(callback));
+        if (entry == null)
+            return false;
+        entry.arena().close();
+        return true;
+    }
+
+    /**
+     * Get the registered upcall stub of a callback instance.
+     *
+     * @param  callback the callback instance
+     * @return the upcall stub, or {@code null} if the callback is not
+     *         registered
+     */
+    public static MemorySegment lookup(FunctionPointer callback) {
+        if (STUBS.isEmpty())
+            return null;
+        Entry entry = STUBS.get(new Key(callback));
+        return entry == null ? null : entry.stub();
+    }
+
+    /**
+     * Get the number of registered callback instances.
+     *
+     * @return the number of registered callbacks
+     */
+    public static int registeredCallbacks() {
+        return STUBS.size();
+    }
+}
@@ -0,0 +1,167 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 the Java-GI developers
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.interop;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.Arrays;
+
+/**
+ * A per-thread arena for short-lived allocations during a native function
+ * call.
+ * <p>
+ * Every thread owns a fixed memory block. {@link #open()} starts a new frame
+ * on that block, and allocations in the frame are bumped from the block.
+ * When the frame is closed, the memory is released by resetting the offset
+ * back to where the frame started. Frames are nested in stack order, so a
+ * callback that calls another native function while a frame is open gets its
+ * own frame on top of it.
+ * <p>
+ * Allocations that do not fit in the block, and everything that requires a
+ * real memory scope (such as upcall stubs or
+ * {@link MemorySegment#reinterpret(long, Arena, java.util.function.Consumer)}),
+ * use a confined arena that is created on demand and closed together with
+ * the frame.
+ * <p>
+ * Memory allocated in a frame must not be used after the frame is closed.
+ * Segments that are bumped from the block are not bound to a memory scope,
+ * so this is not checked: {@link #scope()} is the scope of the fallback
+ * arena, and only applies to the fallback allocations. When the system
+ * property {@code javagi.scratchArenaChecks} is set to {@code true}, all
+ * segments are bound to the fallback arena, so that use after the frame is
+ * closed, or from another thread, throws an exception.
+ * <p>
+ * The arena is meant to be used in a try-with-resources block, by the thread
+ * that opened it:
+ * {@snippet :
+ * try (var arena = ScratchArena.open()) {
+ *     MemorySegment str = arena.allocateFrom("text");
+ *     // ...
+ * }
+ * }
+ */
+public final class ScratchArena implements Arena {
+
+    // Size of the memory block of each thread
+    private static final long BLOCK_SIZE = 16 * 1024;
+
+    // Bind the segments that are bumped from the block to the frame
+    private static final boolean CHECKED =
+            Boolean.getBoolean("javagi.scratchArenaChecks");
+
+    private static final ThreadLocal<Stack> STACK =
+            ThreadLocal.withInitial(Stack::new);
+
+    private final Stack stack;
+    private long mark;
+    private Arena fallback;
+
+    private ScratchArena(Stack stack) {
+        this.stack = stack;
+    }
+
+    /**
+     * Open a new frame on the scratch memory of the current thread.
+     *
+     * @return an arena for the new frame
+     */
+    public static ScratchArena open() {
+        return STACK.get().push();
+    }
+
+    @Override
+    public MemorySegment allocate(long byteSize, long byteAlignment) {
+        if (byteSize < 0 || byteAlignment <= 0
+                || (byteAlignment & (byteAlignment - 1)) != 0)
+            return fallback().allocate(byteSize, byteAlignment);
+
+        long address = stack.block.address();
+        long start = ((address + stack.offset + byteAlignment - 1)
+                & -byteAlignment) - address;
+        if (start + byteSize > BLOCK_SIZE)
+            return fallback().allocate(byteSize, byteAlignment);
+
+        stack.offset = start + byteSize;
+        // Arena allocations are zero-initialized
+        MemorySegment segment = stack.block.asSlice(start, byteSize)
+                .fill((byte) 0);
+        return CHECKED ? segment.reinterpret(fallback(), null) : segment;
+    }
+
+    /**
+     * The scope of the confined arena that is used for allocations that do
+     * not fit in the memory block of the thread. It is closed together with
+     * the frame. Segments that are bumped from the memory block are not
+     * bound to this scope, unless {@code javagi.scratchArenaChecks} is set.
+     *
+     * @return the scope of the fallback arena
+     */
+    @Override
+    public MemorySegment.Scope scope() {
+        return fallback().scope();
+    }
+
+    /**
+     * Release all memory that was allocated in this frame.
+     */
+    @Override
+    public void close() {
+        stack.pop(this);
+        if (fallback != null) {
+            fallback.close();
+            fallback = null;
+        }
+    }
+
+    private Arena fallback() {
+        if (fallback == null)
+            fallback = Arena.ofConfined();
+        return fallback;
+    }
+
+    // The scratch memory of one thread, and the frames that are open on it
+    private static final class Stack {
+        private final MemorySegment block =
+                Arena.ofAuto().allocate(BLOCK_SIZE, 16);
+        private long offset = 0;
+        private ScratchArena[] frames = new ScratchArena[8];
+        private int depth = 0;
+
+        // Frame instances are reused for every call at the same depth
+        ScratchArena push() {
+            if (depth == frames.length)
+                frames = Arrays.copyOf(frames, depth * 2);
+            ScratchArena frame = frames[depth];
+            if (frame == null)
+                frame = frames[depth] = new ScratchArena(this);
+            frame.mark = offset;
+            depth++;
+            return frame;
+        }
+
+        void pop(ScratchArena frame) {
+            if (depth == 0 || frames[depth - 1] != frame)
+                throw new IllegalStateException(
+                        "Scratch arena frames must be closed in reverse order");
+            depth--;
+            offset = frame.mark;
+        }
+    }
+}
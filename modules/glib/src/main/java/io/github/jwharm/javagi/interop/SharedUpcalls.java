@@ -0,0 +1,195 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 the Java-GI developers
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.interop;
+
+import java.lang.foreign.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Shared upcall stubs for callbacks that receive a {@code user_data} pointer
+ * as their last argument, such as signal handlers.
+ * <p>
+ * Instead of creating a new upcall stub for every callback instance, one
+ * stub is created for every callback type, and it is never freed. The
+ * callback instances are registered in a handle table with a unique id, that
+ * is passed directly as the user_data pointer. The shared stub looks up the
+ * callback instance with the id and invokes its {@code upcall} method. The
+ * DestroyNotify callback {@link #REMOVE_CB_SYM} removes the callback
+ * instance from the table.
+ * <p>
+ * Shared upcall stubs are used for signal handlers when the system property
+ * {@code javagi.sharedUpcallStubs} is set to {@code true}.
+ */
+public final class SharedUpcalls {
+
+    /**
+     * Whether signal handlers are connected with shared upcall stubs
+     */
+    public static final boolean ENABLED =
+            Boolean.getBoolean("javagi.sharedUpcallStubs");
+
+    // Contains all registered callback instances, keyed by their id
+    private static final ConcurrentLongMap<Object> HANDLERS =
+            new ConcurrentLongMap<>();
+
+    // Source of unique ids. Id 0 is never used, so user_data is never NULL.
+    private static final AtomicLong NEXT_ID = new AtomicLong(1);
+
+    // The shared upcall stubs, keyed by callback type
+    private static final Map<Class<?>, MemorySegment> STUBS =
+            new ConcurrentHashMap<>();
+
+    private static final MethodHandle GET_HANDLER;
+
+    /**
+     * The upcall stub for the DestroyNotify callback method
+     */
+    public static final MemorySegment REMOVE_CB_SYM;
+
+    // Allocate the upcall stub for the DestroyNotify callback method
+    static {
+        try {
+            var lookup = MethodHandles.lookup();
+            GET_HANDLER = lookup.findStatic(SharedUpcalls.class, "getHandler",
+                    MethodType.methodType(Object.class, MemorySegment.class));
+
+            FunctionDescriptor _fdesc = FunctionDescriptor.ofVoid(ValueLayout.ADDRESS);
+            MethodHandle _handle = lookup.findStatic(
+                    SharedUpcalls.class, "remove_cb", _fdesc.toMethodType());
+            REMOVE_CB_SYM = Linker.nativeLinker().upcallStub(_handle, _fdesc, Arena.global());
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // Prevent instantiation
+    private SharedUpcalls() {
+    }
+
+    /**
+     * Add the callback instance to the handle table, and return a unique id
+     * for it, encoded as a pointer value. No memory is allocated for the id.
+     *
+     * @param  handler the callback instance
+     * @return the id of the callback instance, to be passed as user_data
+     */
+    public static MemorySegment register(Object handler) {
+        requireNonNull(handler);
+        long id = NEXT_ID.getAndIncrement();
+        HANDLERS.put(id, handler);
+        return MemorySegment.ofAddress(id);
+    }
+
+    /**
+     * This is called by native code when it runs the DestroyNotify callback.
+     * It will remove the callback instance from the handle table.
+     *
+     * @param data the id of the callback instance, passed as a pointer value
+     */
+    public static void remove_cb(MemorySegment data) {
+        HANDLERS.remove(data.address());
+    }
+
+    /**
+     * Get the number of callback instances in the handle table.
+     *
+     * @return the number of registered callback instances
+     */
+    public static int registeredHandlers() {
+        return HANDLERS.size();
+    }
+
+    /**
+     * Get the shared upcall stub for a callback type, if it has already been
+     * created.
+     *
+     * @param  cls the callback type
+     * @return the shared upcall stub, or {@code null} if it has not been
+     *         created yet
+     */
+    public static MemorySegment getStub(Class<?> cls) {
+        return STUBS.get(cls);
+    }
+
+    /**
+     * Get the shared upcall stub for a callback type, and create it if
+     * necessary. The stub invokes the {@code upcall} method of the callback
+     * instance that is registered with the id in the user_data argument.
+     *
+     * @param  lookup     lookup object with access to the {@code upcall}
+     *                    method
+     * @param  cls        the callback type
+     * @param  descriptor the function descriptor of the {@code upcall}
+     *                    method. The user_data argument is appended to it.
+     * @return the shared upcall stub
+     */
+    public static MemorySegment getStub(MethodHandles.Lookup lookup,
+                                        Class<?> cls,
+                                        FunctionDescriptor descriptor) {
+        return STUBS.computeIfAbsent(cls,
+                _ -> createStub(lookup, cls, descriptor));
+    }
+
+    private static MemorySegment createStub(MethodHandles.Lookup lookup,
+                                            Class<?> cls,
+                                            FunctionDescriptor descriptor) {
+        // (cls, params...) -> result
+        MethodHandle upcall = Interop.upcallHandle(lookup, cls, descriptor);
+        int nParams = upcall.type().parameterCount() - 1;
+
+        // (user_data, params..., user_data) -> result
+        MethodHandle handle = MethodHandles.dropArguments(
+                upcall, nParams + 1, MemorySegment.class);
+        handle = MethodHandles.filterArguments(handle, 0,
+                GET_HANDLER.asType(MethodType.methodType(cls, MemorySegment.class)));
+
+        // (params..., user_data) -> result
+        int[] reorder = new int[nParams + 2];
+        reorder[0] = nParams;
+        for (int i = 0; i < nParams; i++)
+            reorder[i + 1] = i;
+        reorder[nParams + 1] = nParams;
+        FunctionDescriptor shared = descriptor.appendArgumentLayouts(ValueLayout.ADDRESS);
+        handle = MethodHandles.permuteArguments(handle,
+                shared.toMethodType(), reorder);
+
+        return Linker.nativeLinker().upcallStub(handle, shared, Arena.global());
+    }
+
+    /*
+     * Get the callback instance for the id in the user_data argument. Native
+     * code does not invoke the callback after the DestroyNotify callback, so
+     * the instance is always present.
+     */
+    private static Object getHandler(MemorySegment userData) {
+        Object handler = HANDLERS.get(userData.address());
+        if (handler == null)
+            throw new IllegalStateException("No callback registered with id "
+                    + userData.address());
+        return handler;
+    }
+}
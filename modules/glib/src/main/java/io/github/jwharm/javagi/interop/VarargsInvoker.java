@@ -27,7 +27,9 @@ import java.lang.foreign.*;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static io.github.jwharm.javagi.interop.Interop.*;
 
@@ -38,6 +40,24 @@ record VarargsInvoker(MemorySegment symbol, FunctionDescriptor fdesc) {
 
     private static final MethodHandle METHOD_HANDLE;
 
+    // Maximum number of linked function shapes that are cached
+    private static final int MAX_CACHED_SPREADERS = 1024;
+
+    /*
+     * Linked spreader handles, keyed by function address, base function
+     * descriptor and the shape of the variadic arguments.
+     */
+    private static final Map<ShapeKey, MethodHandle> SPREADERS =
+            new ConcurrentHashMap<>();
+
+    /*
+     * The shape of the variadic arguments is encoded in a String with one
+     * character per argument: 'I' (int), 'J' (long), 'D' (double) or
+     * 'A' (address).
+     */
+    private record ShapeKey(long symbol, FunctionDescriptor fdesc, String shape) {
+    }
+
     static {
         try {
             METHOD_HANDLE = MethodHandles.lookup().findVirtual(
@@ -96,76 +116,98 @@ record VarargsInvoker(MemorySegment symbol, FunctionDescriptor fdesc) {
         // number of fixed and variable arguments
         int nNamedArgs = fdesc.argumentLayouts().size();
         int nVarargs = varargs.length;
-
-        // create array of memory layouts
         int argsCount = nNamedArgs + nVarargs;
-        MemoryLayout[] argLayouts = new MemoryLayout[argsCount];
-
-        // Fill in the named memory layouts
-        int pos;
-        for (pos = 0; pos < nNamedArgs; pos++)
-            argLayouts[pos] = fdesc.argumentLayouts().get(pos);
 
         /*
          * Create a memory allocation arena for marshaling Java arrays to native
          * arrays. The memory will be deallocated immediately after the function
          * call returned.
          */
-        try (var arena = Arena.ofConfined()) {
-
-            // Marshal the Java-GI types to a pointer or primitive value
-            Object[] marshaledVarargs = new Object[nVarargs];
-            for (int i = 0; i < nVarargs; i++)
-                marshaledVarargs[i] = marshalArgument(varargs[i], arena);
-
-            // Fill in the varargs memory layouts
-            for (Object o : marshaledVarargs) {
-                argLayouts[pos] = variadicLayout(o.getClass());
-                pos++;
-            }
-
-            // Create the function descriptor
-            FunctionDescriptor f = fdesc.returnLayout().map(
-                    layout -> FunctionDescriptor.of(layout, argLayouts)).orElseGet(
-                    ()     -> FunctionDescriptor.ofVoid(argLayouts));
-            Linker.Option fva = Linker.Option.firstVariadicArg(nNamedArgs);
-            MethodHandle mh = Interop.downcallHandle(symbol, f, fva);
+        try (var arena = ScratchArena.open()) {
 
-            // Flatten the fixed and variadic arguments in one array
+            // Flatten the fixed and marshaled variadic arguments in one array,
+            // and determine the shape of the variadic arguments
             Object[] allArgs = new Object[argsCount];
             System.arraycopy(args, 0, allArgs, 0, nNamedArgs);
-            System.arraycopy(marshaledVarargs, 0, allArgs, nNamedArgs, nVarargs);
-
-            // Create a handle that spreads the array into positional arguments
-            var spreader = mh.asSpreader(Object[].class, argsCount);
+            char[] shape = new char[nVarargs];
+            for (int i = 0; i < nVarargs; i++) {
+                Object o = marshalArgument(varargs[i], arena);
+                allArgs[nNamedArgs + i] = o;
+                shape[i] = shapeOf(o.getClass());
+            }
 
             // Invoke the handle
-            return spreader.invoke(allArgs);
+            return spreader(new String(shape)).invoke(allArgs);
         }
     }
 
+    /*
+     * Get a handle for this function with the provided variadic arguments,
+     * that spreads an array into positional arguments. The handles are
+     * cached.
+     */
+    private MethodHandle spreader(String shape) {
+        var key = new ShapeKey(symbol.address(), fdesc, shape);
+        MethodHandle spreader = SPREADERS.get(key);
+        if (spreader != null)
+            return spreader;
+
+        int nNamedArgs = fdesc.argumentLayouts().size();
+        MemoryLayout[] argLayouts = new MemoryLayout[nNamedArgs + shape.length()];
+
+        // Fill in the named and variadic memory layouts
+        for (int i = 0; i < nNamedArgs; i++)
+            argLayouts[i] = fdesc.argumentLayouts().get(i);
+        for (int i = 0; i < shape.length(); i++)
+            argLayouts[nNamedArgs + i] = variadicLayout(shape.charAt(i));
+
+        // Create the function descriptor
+        FunctionDescriptor f = fdesc.returnLayout().map(
+                layout -> FunctionDescriptor.of(layout, argLayouts)).orElseGet(
+                ()     -> FunctionDescriptor.ofVoid(argLayouts));
+        Linker.Option fva = Linker.Option.firstVariadicArg(nNamedArgs);
+        spreader = Interop.downcallHandle(symbol, f, fva)
+                .asSpreader(Object[].class, argLayouts.length);
+
+        // The cache is bounded: when it is full, the handle is not cached
+        if (SPREADERS.size() >= MAX_CACHED_SPREADERS)
+            return spreader;
+        var existing = SPREADERS.putIfAbsent(key, spreader);
+        return existing == null ? spreader : existing;
+    }
+
     /*
      * Apply default argument promotions per C spec. Note that all primitives
      * are boxed, since they are passed through an Object[].
      */
-    private static MemoryLayout variadicLayout(Class<?> c) {
+    private static char shapeOf(Class<?> c) {
         if (c == Boolean.class || c == Byte.class || c == Character.class
                 || c == Short.class || c == Integer.class)
-            return ValueLayout.JAVA_INT;
+            return 'I';
 
         if (c == Long.class)
-            return ValueLayout.JAVA_LONG;
+            return 'J';
 
         if (c == Float.class || c == Double.class)
-            return ValueLayout.JAVA_DOUBLE;
+            return 'D';
 
         if (MemorySegment.class.isAssignableFrom(c))
-            return ValueLayout.ADDRESS;
+            return 'A';
 
         throw new InteropException("Unsupported variadic argument type: "
                 + c.getTypeName());
     }
 
+    private static MemoryLayout variadicLayout(char shape) {
+        return switch (shape) {
+            case 'I' -> ValueLayout.JAVA_INT;
+            case 'J' -> ValueLayout.JAVA_LONG;
+            case 'D' -> ValueLayout.JAVA_DOUBLE;
+            case 'A' -> ValueLayout.ADDRESS;
+            default -> throw new AssertionError("Cannot get here!");
+        };
+    }
+
     /*
      * Marshal the Java-GI types to their memory address or primitive value.
      * Arrays are allocated to native memory as-is (no additional NULL is
@@ -0,0 +1,48 @@
+package io.github.jwharm.javagi.test.glib;
+
+import io.github.jwharm.javagi.interop.Interop;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Test that a critical downcall that reads a Java array in-place returns the
+ * same result as a regular downcall
+ */
+public class CriticalDowncallTest {
+
+    private static final FunctionDescriptor STR_HASH =
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS);
+
+    private static final byte[] KEY =
+            "java-gi\0".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void testCriticalDowncall() throws Throwable {
+        MethodHandle regular = Interop.downcallHandle("g_str_hash", STR_HASH);
+        MethodHandle critical = Interop.criticalDowncallHandle("g_str_hash", STR_HASH, true);
+
+        int expected = strHashCopy(regular);
+        assertEquals(expected, strHashHeap(critical));
+    }
+
+    // Copy the string into native memory, like a regular generated wrapper
+    private static int strHashCopy(MethodHandle handle) throws Throwable {
+        try (var arena = Arena.ofConfined()) {
+            MemorySegment str = arena.allocateFrom(ValueLayout.JAVA_BYTE, KEY);
+            return (int) handle.invokeExact(str);
+        }
+    }
+
+    // Pass the Java array directly to a critical function
+    private static int strHashHeap(MethodHandle handle) throws Throwable {
+        return (int) handle.invokeExact(MemorySegment.ofArray(KEY));
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.jwharm.javagi.test.glib;
+
+import io.github.jwharm.javagi.interop.ConcurrentLongMap;
+import org.gnome.glib.Type;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test the canonical GType instances and the long-keyed map
+ */
+public class GTypeTest {
+
+    @Test
+    void testInternedType() {
+        Type type = Type.of(80L);
+        assertSame(type, Type.of(80L));
+        assertEquals(new Type(80L), type);
+        assertThrows(UnsupportedOperationException.class, () -> type.setValue(84L));
+        assertEquals(80L, Type.of(80L).getValue());
+
+        // Regular instances can still be changed
+        Type other = new Type(80L);
+        other.setValue(84L);
+        assertEquals(Type.of(84L), other);
+    }
+
+    @Test
+    void testConcurrentLongMap() {
+        var map = new ConcurrentLongMap<String>();
+        for (long i = 0; i < 1000; i++)
+            assertNull(map.put(i << 4, "value" + i));
+        assertEquals(1000, map.size());
+        assertEquals("value500", map.get(500L << 4));
+
+        for (long i = 0; i < 1000; i += 2)
+            assertEquals("value" + i, map.remove(i << 4));
+        assertEquals(500, map.size());
+        assertNull(map.get(500L << 4));
+        assertEquals("value501", map.get(501L << 4));
+
+        assertEquals("value501", map.putIfAbsent(501L << 4, "other"));
+        assertFalse(map.remove(501L << 4, "other"));
+        assertEquals("new", map.computeIfAbsent(500L << 4, _ -> "new"));
+    }
+}
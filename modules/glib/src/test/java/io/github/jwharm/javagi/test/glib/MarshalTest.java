@@ -1,6 +1,10 @@
 package io.github.jwharm.javagi.test.glib;
 
+import io.github.jwharm.javagi.base.DoubleList;
+import io.github.jwharm.javagi.base.IntList;
 import io.github.jwharm.javagi.base.Proxy;
+import io.github.jwharm.javagi.base.ProxyList;
+import io.github.jwharm.javagi.base.StringList;
 import io.github.jwharm.javagi.interop.Interop;
 import org.gnome.glib.GString;
 import org.gnome.glib.OptionFlags;
@@ -9,9 +13,11 @@ import org.junit.jupiter.api.Test;
 
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
 import java.util.Arrays;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -171,6 +177,80 @@ public class MarshalTest {
         }
     }
 
+    @Test
+    void testIntList() {
+        try (Arena arena = Arena.ofConfined()) {
+            int[] input = {1, 2, 3, 0, Integer.MIN_VALUE, Integer.MAX_VALUE};
+            MemorySegment allocation = Interop.allocateNativeArray(input, false, arena);
+            IntList output = Interop.getIntegerListFrom(allocation, input.length, false);
+            assertEquals(input.length, output.size());
+            for (int i = 0; i < input.length; i++)
+                assertEquals(input[i], output.getInt(i));
+            assertEquals(Arrays.toString(input), Arrays.toString(output.toIntArray()));
+
+            int[] copy = new int[2];
+            output.copyTo(4, copy, 0, 2);
+            assertEquals(Integer.MIN_VALUE, copy[0]);
+            assertEquals(Integer.MAX_VALUE, copy[1]);
+
+            // The list is a view of the native array
+            allocation.setAtIndex(ValueLayout.JAVA_INT, 0, 42);
+            assertEquals(42, output.get(0));
+
+            assertEquals(3, Interop.getIntegerListFrom(allocation, false).size());
+        }
+    }
+
+    @Test
+    void testDoubleList() {
+        try (Arena arena = Arena.ofConfined()) {
+            double[] input = {1d, 2d, 3d, Math.PI, Double.MIN_VALUE, Double.MAX_VALUE};
+            MemorySegment allocation = Interop.allocateNativeArray(input, false, arena);
+            DoubleList output = Interop.getDoubleListFrom(allocation, input.length, false);
+            assertEquals(Arrays.toString(input), output.toString());
+
+            double[] copy = new double[input.length];
+            output.copyTo(0, copy, 0, input.length);
+            assertEquals(Arrays.toString(input), Arrays.toString(copy));
+        }
+    }
+
+    @Test
+    void testStringList() {
+        try (Arena arena = Arena.ofConfined()) {
+            String[] input = {"123 abc", "456 def", "789 ghi"};
+            MemorySegment allocation = Interop.allocateNativeArray(input, false, arena);
+            StringList output = Interop.getStringListFrom(allocation, 3, false);
+            assertEquals(Arrays.asList(input), output);
+
+            allocation = Interop.allocateNativeArray(input, true, arena);
+            output = Interop.getStringListFrom(allocation, false);
+            assertEquals(Arrays.asList(input), output);
+        }
+    }
+
+    @Test
+    void testProxyList() {
+        try (Arena arena = Arena.ofConfined()) {
+            Variant[] input = {
+                    Variant.int32(1),
+                    Variant.int32(2),
+                    Variant.int32(3)
+            };
+            MemorySegment allocation = Interop.allocateNativeArray(input, false, arena);
+            ProxyList<Variant> output = Interop.getProxyListFrom(allocation, 3, Variant::new, false);
+            assertEquals(Arrays.asList(input), output);
+
+            // Proxy instances are created once
+            assertSame(output.get(1), output.get(1));
+
+            allocation = Interop.allocateNativeArray(input, true, arena);
+            output = Interop.getProxyListFrom(allocation, Variant::new, false);
+            assertEquals(3, output.size());
+            assertEquals(Arrays.asList(input), output);
+        }
+    }
+
     @Test
     void testStructArray() {
         try (Arena arena = Arena.ofConfined()) {
@@ -0,0 +1,40 @@
+package io.github.jwharm.javagi.test.glib;
+
+import io.github.jwharm.javagi.base.BooleanOut;
+import io.github.jwharm.javagi.base.DoubleOut;
+import io.github.jwharm.javagi.base.IntOut;
+import io.github.jwharm.javagi.base.Out;
+import io.github.jwharm.javagi.interop.Interop;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test setting out-parameters with primitive and boxed Out objects
+ */
+public class OutTest {
+
+    @Test
+    void testPrimitiveOut() {
+        IntOut i = new IntOut();
+        Interop.setOut(i, 42);
+        assertEquals(42, i.getAsInt());
+        assertEquals(42, i.get());
+
+        BooleanOut b = new BooleanOut();
+        Interop.setOut(b, true);
+        assertTrue(b.getAsBoolean());
+
+        DoubleOut d = new DoubleOut(1.0);
+        d.set(Double.valueOf(2.5));
+        assertEquals(2.5, d.getAsDouble());
+        assertThrows(NullPointerException.class, () -> d.set((Double) null));
+    }
+
+    @Test
+    void testBoxedOut() {
+        Out<Integer> i = new Out<>();
+        Interop.setOut(i, 42);
+        assertEquals(42, i.get());
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.jwharm.javagi.test.glib;
+
+import io.github.jwharm.javagi.interop.ReusableCallbacks;
+import org.gnome.glib.GLib;
+import org.gnome.glib.MainContext;
+import org.gnome.glib.SourceFunc;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test passing a registered callback to native code repeatedly with the
+ * same upcall stub
+ */
+public class ReusableCallbacksTest {
+
+    @Test
+    void testReusableCallback() {
+        var count = new AtomicInteger();
+        SourceFunc func = () -> {
+            count.incrementAndGet();
+            return GLib.SOURCE_REMOVE;
+        };
+
+        MemorySegment stub = ReusableCallbacks.register(func);
+        assertEquals(stub, ReusableCallbacks.register(func));
+        try (var arena = Arena.ofConfined()) {
+            assertEquals(stub, func.toCallback(arena));
+        }
+
+        // Add the same idle function a few times
+        for (int i = 0; i < 3; i++)
+            GLib.idleAdd(GLib.PRIORITY_DEFAULT, func);
+        var context = MainContext.default_();
+        while (context.pending())
+            context.iteration(false);
+        assertEquals(3, count.get());
+
+        assertTrue(ReusableCallbacks.release(func));
+        assertFalse(ReusableCallbacks.release(func));
+        assertNull(ReusableCallbacks.lookup(func));
+        try (var arena = Arena.ofConfined()) {
+            assertNotEquals(stub, func.toCallback(arena));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.jwharm.javagi.test.glib;
+
+import io.github.jwharm.javagi.interop.Interop;
+import io.github.jwharm.javagi.interop.ScratchArena;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test allocating temporary memory in nested scratch arena frames
+ */
+public class ScratchArenaTest {
+
+    @Test
+    void testNestedFrames() {
+        long outerAddress;
+        try (var outer = ScratchArena.open()) {
+            MemorySegment a = outer.allocate(ValueLayout.JAVA_LONG);
+            a.set(ValueLayout.JAVA_LONG, 0, 42L);
+            outerAddress = a.address();
+
+            long innerAddress;
+            try (var inner = ScratchArena.open()) {
+                MemorySegment b = inner.allocate(ValueLayout.JAVA_LONG);
+                innerAddress = b.address();
+                assertTrue(innerAddress > outerAddress);
+                assertEquals(0L, b.get(ValueLayout.JAVA_LONG, 0));
+            }
+
+            // The inner frame is released and its memory is reused
+            MemorySegment c = outer.allocate(ValueLayout.JAVA_LONG);
+            assertEquals(innerAddress, c.address());
+            assertEquals(42L, a.get(ValueLayout.JAVA_LONG, 0));
+        }
+
+        // The outer frame is released too
+        try (var arena = ScratchArena.open()) {
+            assertEquals(outerAddress, arena.allocate(ValueLayout.JAVA_LONG).address());
+        }
+    }
+
+    @Test
+    void testLargeAllocation() {
+        MemorySegment large;
+        try (var arena = ScratchArena.open()) {
+            large = arena.allocate(1024 * 1024);
+            assertEquals(1024 * 1024, large.byteSize());
+            assertEquals(arena.scope(), large.scope());
+            String input = "123 abc";
+            MemorySegment str = Interop.allocateNativeString(input, arena);
+            assertEquals(input, Interop.getStringFrom(str));
+        }
+
+        // The fallback allocation is released with the frame
+        assertFalse(large.scope().isAlive());
+    }
+
+    @Test
+    void testCloseOutOfOrder() {
+        var outer = ScratchArena.open();
+        var inner = ScratchArena.open();
+        assertThrows(IllegalStateException.class, outer::close);
+        inner.close();
+        outer.close();
+    }
+}
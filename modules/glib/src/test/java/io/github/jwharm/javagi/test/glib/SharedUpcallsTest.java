@@ -0,0 +1,53 @@
+package io.github.jwharm.javagi.test.glib;
+
+import io.github.jwharm.javagi.interop.SharedUpcalls;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test dispatching callbacks through a shared upcall stub and the handle
+ * table in SharedUpcalls
+ */
+public class SharedUpcallsTest {
+
+    private static final FunctionDescriptor FDESC =
+            FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.JAVA_INT);
+
+    @Test
+    void testSharedStub() throws Throwable {
+        MemorySegment stub = SharedUpcalls.getStub(
+                MethodHandles.lookup(), Multiply.class, FDESC);
+        assertEquals(stub, SharedUpcalls.getStub(Multiply.class));
+        assertEquals(stub, SharedUpcalls.getStub(
+                MethodHandles.lookup(), Multiply.class, FDESC));
+
+        // Call the stub like native code would, with user_data at the end
+        MethodHandle call = Linker.nativeLinker().downcallHandle(stub,
+                FDESC.appendArgumentLayouts(ValueLayout.ADDRESS));
+
+        int registered = SharedUpcalls.registeredHandlers();
+        MemorySegment twice = SharedUpcalls.register((Multiply) v -> v * 2);
+        MemorySegment thrice = SharedUpcalls.register((Multiply) v -> v * 3);
+        assertEquals(registered + 2, SharedUpcalls.registeredHandlers());
+
+        assertEquals(42, (int) call.invokeExact(21, twice));
+        assertEquals(63, (int) call.invokeExact(21, thrice));
+
+        SharedUpcalls.remove_cb(twice);
+        SharedUpcalls.remove_cb(thrice);
+        assertEquals(registered, SharedUpcalls.registeredHandlers());
+    }
+
+    @FunctionalInterface
+    public interface Multiply {
+        int upcall(int value);
+    }
+}
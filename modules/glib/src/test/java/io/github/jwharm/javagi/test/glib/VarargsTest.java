@@ -1,10 +1,16 @@
 package io.github.jwharm.javagi.test.glib;
 
+import io.github.jwharm.javagi.interop.Interop;
 import org.gnome.glib.GLib;
 import org.junit.jupiter.api.Test;
 
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -20,4 +26,26 @@ public class VarargsTest {
         var possibleResults = List.of("abc 123 4.56 c", "abc 123 4,56 c");
         assertTrue(possibleResults.contains(str));
     }
+
+    @Test
+    void testRepeatedVarargs() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals("abc " + i, GLib.strdupPrintf("%s %d", "abc", i));
+            assertEquals("" + i, GLib.strdupPrintf("%d", i));
+        }
+    }
+
+    @Test
+    void testFixedShapeVarargs() throws Throwable {
+        var handle = Interop.downcallHandle("g_strdup_printf",
+                FunctionDescriptor.of(ValueLayout.ADDRESS,
+                        ValueLayout.ADDRESS, ValueLayout.JAVA_INT, ValueLayout.ADDRESS),
+                1);
+        try (var arena = Arena.ofConfined()) {
+            var format = Interop.allocateNativeString("%d %s", arena);
+            var str = Interop.allocateNativeString("abc", arena);
+            var result = (MemorySegment) handle.invokeExact(format, 123, str);
+            assertEquals("123 abc", Interop.getStringFrom(result, true));
+        }
+    }
 }
@@ -0,0 +1,15 @@
+plugins {
+    id("java-gi.library-conventions")
+}
+
+// The annotation processor is added to the processor path of applications,
+// and doesn't contain generated bindings
+tasks.named("generateSources") {
+    enabled = false
+}
+
+publishing.publications.named<MavenPublication>("mavenJava") {
+    pom {
+        description = "Annotation processor that generates registration descriptors for GObject-derived Java classes"
+    }
+}
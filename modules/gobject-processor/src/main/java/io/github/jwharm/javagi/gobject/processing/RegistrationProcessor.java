@@ -0,0 +1,850 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2023 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.gobject.processing;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Generates a {@code RegistrationDescriptor} for every GObject-derived class
+ * that uses the Java-GI registration annotations ({@code @RegisteredType},
+ * {@code @Property}, {@code @Signal}, {@code @ClassInit} or
+ * {@code @InstanceInit}).
+ * <p>
+ * The descriptor contains the GType name, the memory layouts, the property
+ * and signal specifications, and calls the memory-address constructor,
+ * property getters and setters and initializers of the class directly. When
+ * {@code Types.register} finds the descriptor, it doesn't need to scan the
+ * class with reflection.
+ * <p>
+ * Classes that can't be described at compile time (for example abstract,
+ * generic or private classes, or classes with private annotated methods) are
+ * skipped with a note, and will be registered with reflection.
+ * <p>
+ * The processor is published separately from the {@code gobject} module, so
+ * it only runs when it is added to the processor path:
+ * {@snippet lang="kotlin" :
+ * dependencies {
+ *     annotationProcessor("io.github.jwharm.javagi:gobject-processor:<version>")
+ * }
+ * }
+ */
+@SupportedAnnotationTypes({
+        RegistrationProcessor.REGISTERED_TYPE,
+        RegistrationProcessor.PROPERTY,
+        RegistrationProcessor.SIGNAL,
+        RegistrationProcessor.CLASS_INIT,
+        RegistrationProcessor.INSTANCE_INIT
+})
+public class RegistrationProcessor extends AbstractProcessor {
+
+    private static final String ANNOTATIONS = "io.github.jwharm.javagi.gobject.annotations.";
+    static final String REGISTERED_TYPE = ANNOTATIONS + "RegisteredType";
+    static final String PROPERTY = ANNOTATIONS + "Property";
+    static final String SIGNAL = ANNOTATIONS + "Signal";
+    static final String CLASS_INIT = ANNOTATIONS + "ClassInit";
+    static final String INSTANCE_INIT = ANNOTATIONS + "InstanceInit";
+    private static final String NAMESPACE = ANNOTATIONS + "Namespace";
+    private static final String GTYPE = ANNOTATIONS + "GType";
+    private static final String LAYOUT = ANNOTATIONS + "Layout";
+
+    private static final String TYPES = "io.github.jwharm.javagi.gobject.types.Types";
+    private static final String PROPERTIES = "io.github.jwharm.javagi.gobject.types.Properties";
+    private static final String DESCRIPTOR = "io.github.jwharm.javagi.gobject.types.RegistrationDescriptor";
+    private static final String SUFFIX = "_Registration";
+    private static final String VALUE_UTIL = "io.github.jwharm.javagi.gobject.ValueUtil";
+    private static final String PROXY = "io.github.jwharm.javagi.base.Proxy";
+    private static final String PROXY_INSTANCE = "io.github.jwharm.javagi.base.ProxyInstance";
+    private static final String GLIB_TYPE = "org.gnome.glib.Type";
+    private static final String GOBJECT = "org.gnome.gobject.GObject";
+    private static final String OBJECT_CLASS = "org.gnome.gobject.GObject.ObjectClass";
+    private static final String GOBJECTS = "org.gnome.gobject.GObjects";
+    private static final String TYPE_CLASS = "org.gnome.gobject.TypeClass";
+    private static final String PARAM_SPEC = "org.gnome.gobject.ParamSpec";
+    private static final String VALUE = "org.gnome.gobject.Value";
+    private static final String MEMORY_LAYOUT = "java.lang.foreign.MemoryLayout";
+    private static final String MEMORY_SEGMENT = "java.lang.foreign.MemorySegment";
+
+    // Classes for which a descriptor has already been generated
+    private final Set<String> processed = new HashSet<>();
+
+    private Elements elements;
+    private Types types;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations,
+                           RoundEnvironment roundEnv) {
+        elements = processingEnv.getElementUtils();
+        types = processingEnv.getTypeUtils();
+
+        // Find the classes that declare the annotated elements
+        Set<TypeElement> classes = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                Element cls = element;
+                if (element.getKind() == ElementKind.METHOD
+                        || element.getKind() == ElementKind.INTERFACE)
+                    cls = element.getEnclosingElement();
+                if (cls.getKind() == ElementKind.CLASS
+                        && isSubtype(cls.asType(), GOBJECT))
+                    classes.add((TypeElement) cls);
+            }
+        }
+
+        for (TypeElement cls : classes) {
+            if (! processed.add(cls.getQualifiedName().toString()))
+                continue;
+            try {
+                write(cls, new DescriptorWriter(cls).write());
+            } catch (UnsupportedException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                        "No registration descriptor generated, the class will "
+                                + "be registered with reflection: " + e.getMessage(),
+                        cls);
+            }
+        }
+
+        // Other processors may handle the same annotations
+        return false;
+    }
+
+    private void write(TypeElement cls, String source) {
+        String name = descriptorName(cls);
+        String pkg = elements.getPackageOf(cls).getQualifiedName().toString();
+        String qualifiedName = pkg.isEmpty() ? name : pkg + "." + name;
+        try (Writer writer = processingEnv.getFiler()
+                .createSourceFile(qualifiedName, cls).openWriter()) {
+            writer.write(source);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Cannot write registration descriptor " + qualifiedName
+                            + ": " + e.getMessage(),
+                    cls);
+        }
+    }
+
+    /*
+     * The simple name of the descriptor class: the binary name of the
+     * registered class without the package name, with '$' replaced by '_'.
+     * This must match Types.getRegistrationDescriptor().
+     */
+    private String descriptorName(TypeElement cls) {
+        String binaryName = elements.getBinaryName(cls).toString();
+        String pkg = elements.getPackageOf(cls).getQualifiedName().toString();
+        String name = pkg.isEmpty() ? binaryName : binaryName.substring(pkg.length() + 1);
+        return name.replace('$', '_') + SUFFIX;
+    }
+
+    private boolean isSubtype(TypeMirror type, String className) {
+        TypeElement element = elements.getTypeElement(className);
+        if (element == null)
+            return false;
+        return types.isAssignable(types.erasure(type),
+                types.erasure(element.asType()));
+    }
+
+    private static boolean isType(TypeMirror type, String className) {
+        return type.getKind() == TypeKind.DECLARED
+                && ((TypeElement) ((DeclaredType) type).asElement())
+                        .getQualifiedName().contentEquals(className);
+    }
+
+    private static AnnotationMirror getAnnotation(Element element,
+                                                  String annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+            if (type.getQualifiedName().contentEquals(annotation))
+                return mirror;
+        }
+        return null;
+    }
+
+    // Read an annotation parameter, or its default value
+    private Object getValue(AnnotationMirror annotation, String name) {
+        for (var entry : elements.getElementValuesWithDefaults(annotation).entrySet())
+            if (entry.getKey().getSimpleName().contentEquals(name))
+                return entry.getValue().getValue();
+        return null;
+    }
+
+    private boolean getFlag(AnnotationMirror annotation, String name) {
+        return Boolean.TRUE.equals(getValue(annotation, name));
+    }
+
+    /*
+     * Convert "CamelCase" to "kebab-case", like Properties.getPropertyName()
+     * and Signals.getSignalName()
+     */
+    private static String toKebabCase(String name) {
+        return name.replaceAll("([a-z0-9])([A-Z])", "$1-$2")
+                .toLowerCase().replaceAll("\\.", "");
+    }
+
+    private static String literal(String value) {
+        StringBuilder builder = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                default -> builder.append(c);
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    // Thrown when a class can't be described at compile time
+    private static final class UnsupportedException extends Exception {
+        UnsupportedException(String message) {
+            super(message);
+        }
+    }
+
+    /*
+     * Generates the source code of the registration descriptor for one class.
+     */
+    private final class DescriptorWriter {
+
+        private final TypeElement cls;
+        private final PackageElement pkg;
+        private final String className;
+        private final String typeName;
+        private final StringBuilder out = new StringBuilder();
+
+        DescriptorWriter(TypeElement cls) {
+            this.cls = cls;
+            this.pkg = elements.getPackageOf(cls);
+            this.className = cls.getQualifiedName().toString();
+            this.typeName = getTypeName();
+        }
+
+        String write() throws UnsupportedException {
+            checkClass();
+
+            String constructor = constructor();
+            String parentType = gtype((TypeElement) types.asElement(cls.getSuperclass()));
+            String classLayout = classLayout();
+            String instanceLayout = instanceLayout();
+            String typeFlags = cls.getModifiers().contains(Modifier.FINAL)
+                    ? "java.util.EnumSet.of(org.gnome.gobject.TypeFlags.FINAL)"
+                    : "java.util.EnumSet.noneOf(org.gnome.gobject.TypeFlags.class)";
+            String classInit = classInit();
+            String instanceInit = instanceInit();
+            List<PropertyDeclaration> properties = properties();
+            List<String> signals = signals();
+
+            if (! pkg.isUnnamed())
+                line(0, "package " + pkg.getQualifiedName() + ";");
+            line(0, "");
+            line(0, "/**");
+            line(0, " * Registration descriptor for {@link " + className + "}.");
+            line(0, " */");
+            line(0, "@javax.annotation.processing.Generated(\"" + RegistrationProcessor.class.getName() + "\")");
+            line(0, "public final class " + descriptorName(cls) + " implements "
+                    + DESCRIPTOR + "<" + className + "> {");
+
+            if (! properties.isEmpty()) {
+                line(0, "");
+                line(1, "private static final String[] NAMES = {");
+                line(3, "null,");
+                for (var property : properties)
+                    line(3, literal(property.name) + ",");
+                line(1, "};");
+            }
+
+            method("String typeName()", "return " + literal(typeName) + ";");
+            method("org.gnome.glib.Type parentType()", "return " + parentType + ";");
+            method(MEMORY_LAYOUT + " classLayout()", "return " + classLayout + ";");
+            method(MEMORY_LAYOUT + " instanceLayout()", "return " + instanceLayout + ";");
+            method(className + " newInstance(" + MEMORY_SEGMENT + " address)",
+                    "return " + constructor + ";");
+            method("java.util.Set<org.gnome.gobject.TypeFlags> typeFlags()",
+                    "return " + typeFlags + ";");
+
+            if (! properties.isEmpty())
+                writeProperties(properties);
+
+            if (! signals.isEmpty()) {
+                line(0, "");
+                line(1, "@Override");
+                line(1, "public void installSignals(" + OBJECT_CLASS + " typeClass) {");
+                signals.forEach(signal -> line(2, signal));
+                line(1, "}");
+            }
+
+            if (classInit != null)
+                method("void classInit(" + OBJECT_CLASS + " typeClass)", classInit);
+            if (instanceInit != null)
+                method("void instanceInit(" + className + " instance)", instanceInit);
+
+            line(0, "}");
+            return out.toString();
+        }
+
+        private void line(int indent, String line) {
+            out.append("    ".repeat(indent)).append(line).append('\n');
+        }
+
+        private void method(String signature, String statement) {
+            line(0, "");
+            line(1, "@Override");
+            line(1, "public " + signature + " {");
+            line(2, statement);
+            line(1, "}");
+        }
+
+        // Same rules as Types.getName()
+        private String getTypeName() {
+            String input = elements.getBinaryName(cls).toString();
+            String namespace = "";
+
+            AnnotationMirror ns = getAnnotation(pkg, NAMESPACE);
+            if (ns != null) {
+                namespace = (String) getValue(ns, "name");
+                input = namespace + cls.getSimpleName();
+            }
+
+            AnnotationMirror registeredType = getAnnotation(cls, REGISTERED_TYPE);
+            if (registeredType != null) {
+                String name = (String) getValue(registeredType, "name");
+                if (! "".equals(name))
+                    input = namespace + name;
+            }
+
+            return input.replaceAll("[^a-zA-Z]", "_");
+        }
+
+        private void checkClass() throws UnsupportedException {
+            if (cls.getModifiers().contains(Modifier.ABSTRACT))
+                throw new UnsupportedException("the class is abstract");
+            if (! cls.getTypeParameters().isEmpty())
+                throw new UnsupportedException("the class is generic");
+            if (cls.getNestingKind() != NestingKind.TOP_LEVEL
+                    && (cls.getNestingKind() != NestingKind.MEMBER
+                        || ! cls.getModifiers().contains(Modifier.STATIC)))
+                throw new UnsupportedException("the class is not a top-level or static nested class");
+            if (! isAccessible(cls))
+                throw new UnsupportedException("the class is private");
+        }
+
+        /*
+         * Check if the element can be accessed from the generated descriptor,
+         * that is in the same package as the registered class.
+         */
+        private boolean isAccessible(Element element) {
+            for (Element e = element;
+                 e != null && e.getKind() != ElementKind.PACKAGE;
+                 e = e.getEnclosingElement()) {
+                Set<Modifier> modifiers = e.getModifiers();
+                if (modifiers.contains(Modifier.PRIVATE))
+                    return false;
+                if (! modifiers.contains(Modifier.PUBLIC)
+                        && ! elements.getPackageOf(e).equals(pkg))
+                    return false;
+            }
+            return true;
+        }
+
+        // Check that a method can be called directly by the descriptor
+        private void checkCallable(ExecutableElement method, String description)
+                throws UnsupportedException {
+            if (! isAccessible(method))
+                throw new UnsupportedException(description + " "
+                        + method.getSimpleName() + " is not accessible");
+            if (! method.getThrownTypes().isEmpty())
+                throw new UnsupportedException(description + " "
+                        + method.getSimpleName() + " declares exceptions");
+        }
+
+        private String constructor() throws UnsupportedException {
+            for (var ctor : ElementFilter.constructorsIn(cls.getEnclosedElements())) {
+                var params = ctor.getParameters();
+                if (params.size() == 1 && isType(params.get(0).asType(), MEMORY_SEGMENT)) {
+                    checkCallable(ctor, "constructor");
+                    return "new " + className + "(address)";
+                }
+            }
+            throw new UnsupportedException("no memory-address constructor");
+        }
+
+        /*
+         * Call the static method that returns the GType of the class, like
+         * Types.getGType(), or fall back to Types.getGType() itself.
+         */
+        private String gtype(TypeElement element) {
+            // The class that is being registered can only be initialized
+            // after its GType has been registered
+            if (element.equals(cls))
+                return "typeClass.readGType()";
+
+            ExecutableElement gtypeMethod = null;
+            for (var method : ElementFilter.methodsIn(element.getEnclosedElements()))
+                if (method.getModifiers().contains(Modifier.STATIC)
+                        && getAnnotation(method, GTYPE) != null)
+                    gtypeMethod = method;
+            for (var method : ElementFilter.methodsIn(element.getEnclosedElements()))
+                if (method.getModifiers().contains(Modifier.STATIC)
+                        && isType(method.getReturnType(), GLIB_TYPE))
+                    gtypeMethod = method;
+
+            if (gtypeMethod != null
+                    && gtypeMethod.getParameters().isEmpty()
+                    && gtypeMethod.getThrownTypes().isEmpty()
+                    && isType(gtypeMethod.getReturnType(), GLIB_TYPE)
+                    && isAccessible(gtypeMethod))
+                return element.getQualifiedName() + "." + gtypeMethod.getSimpleName() + "()";
+
+            return TYPES + ".getGType(" + element.getQualifiedName() + ".class)";
+        }
+
+        /*
+         * Find the method that returns the memory layout of a class, like
+         * Types.findLayout()
+         */
+        private ExecutableElement layoutMethod(TypeElement element) {
+            var methods = ElementFilter.methodsIn(element.getEnclosedElements());
+            for (var method : methods)
+                if (getAnnotation(method, LAYOUT) != null)
+                    return method;
+            for (var method : methods)
+                if (method.getSimpleName().contentEquals("getMemoryLayout")
+                        && method.getParameters().isEmpty())
+                    return method;
+            return null;
+        }
+
+        private boolean isCallableLayoutMethod(ExecutableElement method) {
+            return method.getModifiers().contains(Modifier.STATIC)
+                    && method.getParameters().isEmpty()
+                    && method.getThrownTypes().isEmpty()
+                    && isType(method.getReturnType(), MEMORY_LAYOUT)
+                    && isAccessible(method);
+        }
+
+        private String layoutCall(ExecutableElement method) {
+            var type = (TypeElement) method.getEnclosingElement();
+            return type.getQualifiedName() + "." + method.getSimpleName() + "()";
+        }
+
+        // Same as Types.getInstanceLayout()
+        private String instanceLayout() {
+            String fallback = TYPES + ".getInstanceLayout(" + className + ".class, "
+                    + literal(typeName) + ")";
+
+            ExecutableElement method = layoutMethod(cls);
+            if (method != null)
+                return isCallableLayoutMethod(method) ? layoutCall(method) : fallback;
+
+            var parent = (TypeElement) types.asElement(cls.getSuperclass());
+            method = layoutMethod(parent);
+            if (method == null || ! isCallableLayoutMethod(method))
+                return fallback;
+
+            return MEMORY_LAYOUT + ".structLayout(" + layoutCall(method)
+                    + ".withName(\"parent_instance\")).withName(" + literal(typeName) + ")";
+        }
+
+        // Same as Types.getClassLayout()
+        private String classLayout() {
+            String fallback = TYPES + ".getClassLayout(" + className + ".class, "
+                    + literal(typeName) + ")";
+
+            TypeElement typeClass = typeClass(cls);
+            if (typeClass == null)
+                typeClass = typeClass((TypeElement) types.asElement(cls.getSuperclass()));
+            if (typeClass == null)
+                return fallback;
+
+            ExecutableElement method = layoutMethod(typeClass);
+            if (method == null || ! isCallableLayoutMethod(method))
+                return fallback;
+
+            return MEMORY_LAYOUT + ".structLayout(" + layoutCall(method)
+                    + ".withName(\"parent_class\")).withName(" + literal(typeName + "Class") + ")";
+        }
+
+        private TypeElement typeClass(TypeElement element) {
+            for (var nested : ElementFilter.typesIn(element.getEnclosedElements()))
+                if (isSubtype(nested.asType(), TYPE_CLASS))
+                    return nested;
+            return null;
+        }
+
+        private ExecutableElement annotatedMethod(String annotation) {
+            for (var method : ElementFilter.methodsIn(cls.getEnclosedElements()))
+                if (getAnnotation(method, annotation) != null)
+                    return method;
+            return null;
+        }
+
+        private String classInit() throws UnsupportedException {
+            ExecutableElement method = annotatedMethod(CLASS_INIT);
+            if (method == null)
+                return null;
+
+            if (! method.getModifiers().contains(Modifier.STATIC)
+                    || method.getParameters().size() != 1)
+                throw new UnsupportedException("class init method "
+                        + method.getSimpleName() + " is not static with one parameter");
+            checkCallable(method, "class init method");
+
+            TypeMirror paramType = types.erasure(method.getParameters().get(0).asType());
+            String arg = isType(paramType, OBJECT_CLASS)
+                    ? "typeClass"
+                    : "(" + paramType + ") typeClass";
+            return className + "." + method.getSimpleName() + "(" + arg + ");";
+        }
+
+        private String instanceInit() throws UnsupportedException {
+            ExecutableElement method = annotatedMethod(INSTANCE_INIT);
+            if (method == null)
+                return null;
+
+            if (method.getModifiers().contains(Modifier.STATIC)
+                    || ! method.getParameters().isEmpty())
+                throw new UnsupportedException("instance init method "
+                        + method.getSimpleName() + " is not an instance method without parameters");
+            checkCallable(method, "instance init method");
+            return "instance." + method.getSimpleName() + "();";
+        }
+
+        /*
+         * Find the @Property-annotated getters and setters, like
+         * Properties.installProperties()
+         */
+        private List<PropertyDeclaration> properties() throws UnsupportedException {
+            Map<String, PropertyDeclaration> properties = new LinkedHashMap<>();
+
+            for (var method : ElementFilter.methodsIn(cls.getEnclosedElements())) {
+                AnnotationMirror annotation = getAnnotation(method, PROPERTY);
+                if (annotation == null)
+                    continue;
+
+                String methodName = method.getSimpleName().toString();
+                String name = (String) getValue(annotation, "name");
+                if (name.isEmpty()) {
+                    if (! methodName.startsWith("get") && ! methodName.startsWith("set"))
+                        throw new UnsupportedException("cannot infer property name from method "
+                                + methodName);
+                    name = toKebabCase(methodName.substring(3));
+                }
+
+                if (method.getModifiers().contains(Modifier.STATIC))
+                    throw new UnsupportedException("property method " + methodName + " is static");
+                checkCallable(method, "property method");
+
+                boolean setter = method.getReturnType().getKind() == TypeKind.VOID;
+                if (method.getParameters().size() != (setter ? 1 : 0))
+                    throw new UnsupportedException("invalid property getter/setter " + methodName);
+                TypeMirror type = setter
+                        ? method.getParameters().get(0).asType()
+                        : method.getReturnType();
+
+                // The first method of a property declares the ParamSpec
+                PropertyDeclaration property = properties.get(name);
+                if (property == null) {
+                    property = new PropertyDeclaration(name,
+                            paramSpec(name, annotation, type, methodName));
+                    properties.put(name, property);
+                }
+
+                if (setter)
+                    property.setter = setterStatement(methodName, type);
+                else
+                    property.getter = getterStatement(methodName, type);
+            }
+            return new ArrayList<>(properties.values());
+        }
+
+        // Create the ParamSpec, with the same parameters as Properties.installProperties()
+        private String paramSpec(String name,
+                                 AnnotationMirror annotation,
+                                 TypeMirror type,
+                                 String methodName)
+                throws UnsupportedException {
+            String paramSpec = ((TypeMirror) getValue(annotation, "type")).toString();
+            if (paramSpec.equals(PARAM_SPEC))
+                paramSpec = inferParamSpec(type, methodName);
+
+            List<String> flagNames = new ArrayList<>();
+            if (getFlag(annotation, "readable"))       flagNames.add("READABLE");
+            if (getFlag(annotation, "writable"))       flagNames.add("WRITABLE");
+            if (getFlag(annotation, "construct"))      flagNames.add("CONSTRUCT");
+            if (getFlag(annotation, "constructOnly"))  flagNames.add("CONSTRUCT_ONLY");
+            if (getFlag(annotation, "explicitNotify")) flagNames.add("EXPLICIT_NOTIFY");
+            if (getFlag(annotation, "deprecated"))     flagNames.add("DEPRECATED");
+            String flags = enumSet("org.gnome.gobject.ParamFlags", flagNames);
+
+            String n = literal(name);
+            String names = n + ", " + n + ", " + n + ", ";
+            String args = switch (paramSpec.replace("org.gnome.gobject.", "")) {
+                case "ParamSpecBoolean" -> "paramSpecBoolean(" + names + "false";
+                case "ParamSpecChar" -> "paramSpecChar(" + names + "Byte.MIN_VALUE, Byte.MAX_VALUE, (byte) 0";
+                case "ParamSpecDouble" -> "paramSpecDouble(" + names + "-Double.MAX_VALUE, Double.MAX_VALUE, 0.0d";
+                case "ParamSpecFloat" -> "paramSpecFloat(" + names + "-Float.MAX_VALUE, Float.MAX_VALUE, 0.0f";
+                case "ParamSpecGType" -> "paramSpecGtype(" + names + TYPES + ".NONE";
+                case "ParamSpecInt" -> "paramSpecInt(" + names + "Integer.MIN_VALUE, Integer.MAX_VALUE, 0";
+                case "ParamSpecInt64" -> "paramSpecInt64(" + names + "Long.MIN_VALUE, Long.MAX_VALUE, 0";
+                case "ParamSpecLong" -> "paramSpecLong(" + names + "Integer.MIN_VALUE, Integer.MAX_VALUE, 0";
+                case "ParamSpecPointer" -> "paramSpecPointer(" + n + ", " + n + ", " + n;
+                case "ParamSpecString" -> "paramSpecString(" + names + "null";
+                case "ParamSpecUChar" -> "paramSpecUchar(" + names + "(byte) 0, Byte.MAX_VALUE, (byte) 0";
+                case "ParamSpecUInt" -> "paramSpecUint(" + names + "0, Integer.MAX_VALUE, 0";
+                case "ParamSpecUInt64" -> "paramSpecUint64(" + names + "0, Long.MAX_VALUE, 0";
+                case "ParamSpecULong" -> "paramSpecUlong(" + names + "0, Integer.MAX_VALUE, 0";
+                case "ParamSpecUnichar" -> "paramSpecUnichar(" + names + "0";
+                default -> throw new UnsupportedException("unsupported ParamSpec " + paramSpec);
+            };
+            return GOBJECTS + "." + args + ", " + flags + ")";
+        }
+
+        // Same as Properties.inferType()
+        private String inferParamSpec(TypeMirror type, String methodName)
+                throws UnsupportedException {
+            String paramSpec = switch (unbox(type)) {
+                case BOOLEAN -> "ParamSpecBoolean";
+                case BYTE, CHAR -> "ParamSpecChar";
+                case DOUBLE -> "ParamSpecDouble";
+                case FLOAT -> "ParamSpecFloat";
+                case INT -> "ParamSpecInt";
+                case LONG -> "ParamSpecLong";
+                default -> {
+                    if (isType(type, "java.lang.String"))
+                        yield "ParamSpecString";
+                    if (isSubtype(type, GLIB_TYPE))
+                        yield "ParamSpecGType";
+                    if (isSubtype(type, GOBJECT))
+                        yield "ParamSpecObject";
+                    if (isSubtype(type, PROXY_INSTANCE))
+                        yield "ParamSpecBoxed";
+                    if (isSubtype(type, PROXY))
+                        yield "ParamSpecObject";
+                    throw new UnsupportedException("invalid property type " + type
+                            + " in method " + methodName);
+                }
+            };
+            return "org.gnome.gobject." + paramSpec;
+        }
+
+        // The primitive kind of a (boxed) type
+        private TypeKind unbox(TypeMirror type) {
+            if (type.getKind().isPrimitive())
+                return type.getKind();
+            try {
+                return types.unboxedType(type).getKind();
+            } catch (IllegalArgumentException notBoxed) {
+                return type.getKind();
+            }
+        }
+
+        // Write the property value to the GValue, like Properties.Accessor
+        private String getterStatement(String methodName, TypeMirror type) {
+            String call = "instance." + methodName + "()";
+            return switch (type.getKind()) {
+                case BOOLEAN -> "return " + VALUE_UTIL + ".longToValue(" + call + " ? 1 : 0, value);";
+                case DOUBLE, FLOAT -> "return " + VALUE_UTIL + ".doubleToValue(" + call + ", value);";
+                case BYTE, CHAR, SHORT, INT, LONG -> "return " + VALUE_UTIL + ".longToValue(" + call + ", value);";
+                default -> "Object output = " + call + ";\n"
+                        + "return output == null || " + VALUE_UTIL + ".objectToValue(output, value);";
+            };
+        }
+
+        // Read the GValue and call the setter, like Properties.Accessor
+        private String setterStatement(String methodName, TypeMirror type) {
+            String call = "instance." + methodName + "(";
+            return switch (type.getKind()) {
+                case BOOLEAN -> call + VALUE_UTIL + ".valueToLong(value) != 0);";
+                case DOUBLE -> call + VALUE_UTIL + ".valueToDouble(value));";
+                case FLOAT -> call + "(float) " + VALUE_UTIL + ".valueToDouble(value));";
+                case LONG -> call + VALUE_UTIL + ".valueToLong(value));";
+                case BYTE, CHAR, SHORT, INT -> call + "(" + type + ") " + VALUE_UTIL + ".valueToLong(value));";
+                default -> "Object input = " + VALUE_UTIL + ".valueToObject(value);\n"
+                        + "if (input != null)\n"
+                        + "    " + call + "(" + types.erasure(type) + ") input);";
+            };
+        }
+
+        private void writeProperties(List<PropertyDeclaration> properties) {
+            line(0, "");
+            line(1, "@Override");
+            line(1, "public void installProperties(" + OBJECT_CLASS + " typeClass) {");
+            line(2, PARAM_SPEC + "[] pspecs = {");
+            line(4, "null,");
+            for (var property : properties)
+                line(4, property.paramSpec + ",");
+            line(2, "};");
+            line(2, PROPERTIES + ".installProperties(typeClass, "
+                    + literal(elements.getBinaryName(cls).toString()) + ", NAMES, pspecs,");
+            line(4, descriptorName(cls) + "::getProperty, " + descriptorName(cls) + "::setProperty);");
+            line(1, "}");
+
+            accessor("boolean getProperty", "getter", properties, true);
+            accessor("void setProperty", "setter", properties, false);
+        }
+
+        private void accessor(String signature,
+                              String description,
+                              List<PropertyDeclaration> properties,
+                              boolean getter) {
+            line(0, "");
+            if (! getter)
+                line(1, "@SuppressWarnings(\"unchecked\")");
+            line(1, "private static " + signature + "(" + GOBJECT + " object, int propertyId, "
+                    + VALUE + " value) {");
+            line(2, "var instance = (" + className + ") object;");
+            line(2, "switch (propertyId) {");
+            for (int i = 0; i < properties.size(); i++) {
+                String statement = getter ? properties.get(i).getter : properties.get(i).setter;
+                if (statement == null)
+                    continue;
+                line(3, "case " + (i + 1) + " -> {");
+                for (String s : statement.split("\n"))
+                    line(4, s);
+                line(3, "}");
+            }
+            line(3, "default -> throw new UnsupportedOperationException(");
+            line(5, "\"No " + description + " method defined for property \\\"\" + NAMES[propertyId] + \"\\\"\");");
+            line(2, "}");
+            line(1, "}");
+        }
+
+        /*
+         * Find the @Signal-annotated functional interfaces, like
+         * Signals.installSignals(), and return the statements that register
+         * the signals.
+         */
+        private List<String> signals() throws UnsupportedException {
+            List<String> signals = new ArrayList<>();
+            for (var iface : ElementFilter.typesIn(cls.getEnclosedElements())) {
+                if (iface.getKind() != ElementKind.INTERFACE)
+                    continue;
+                AnnotationMirror annotation = getAnnotation(iface, SIGNAL);
+                if (annotation == null)
+                    continue;
+
+                // Find the single abstract method, like
+                // Signals.getSingleAbstractMethod()
+                List<ExecutableElement> abstractMethods = new ArrayList<>();
+                for (var method : ElementFilter.methodsIn(elements.getAllMembers(iface)))
+                    if (method.getModifiers().contains(Modifier.ABSTRACT)
+                            && method.getEnclosingElement().getKind() == ElementKind.INTERFACE)
+                        abstractMethods.add(method);
+                if (abstractMethods.size() != 1)
+                    throw new UnsupportedException("signal declaration "
+                            + iface.getSimpleName() + " is not a functional interface");
+                ExecutableElement sam = abstractMethods.get(0);
+
+                String name = (String) getValue(annotation, "name");
+                if (name.isBlank())
+                    name = toKebabCase(iface.getSimpleName().toString());
+
+                List<String> flagNames = new ArrayList<>();
+                if (getFlag(annotation, "action"))      flagNames.add("ACTION");
+                if (getFlag(annotation, "deprecated"))  flagNames.add("DEPRECATED");
+                if (getFlag(annotation, "detailed"))    flagNames.add("DETAILED");
+                if (getFlag(annotation, "mustCollect")) flagNames.add("MUST_COLLECT");
+                if (getFlag(annotation, "noHooks"))     flagNames.add("NO_HOOKS");
+                if (getFlag(annotation, "noRecurse"))   flagNames.add("NO_RECURSE");
+                if (getFlag(annotation, "runCleanup"))  flagNames.add("RUN_CLEANUP");
+                if (getFlag(annotation, "runFirst"))    flagNames.add("RUN_FIRST");
+                if (getFlag(annotation, "runLast"))     flagNames.add("RUN_LAST");
+
+                List<String> paramTypes = new ArrayList<>();
+                for (var param : sam.getParameters())
+                    paramTypes.add(signalType(types.erasure(param.asType())));
+
+                signals.add(GOBJECTS + ".signalNewv(" + literal(name)
+                        + ", typeClass.readGType(), "
+                        + enumSet("org.gnome.gobject.SignalFlags", flagNames)
+                        + ", null, null, null, "
+                        + signalType(types.erasure(sam.getReturnType()))
+                        + ", new " + GLIB_TYPE + "[] {" + String.join(", ", paramTypes) + "});");
+            }
+            return signals;
+        }
+
+        // Same as Signals.inferType()
+        private String signalType(TypeMirror type) throws UnsupportedException {
+            if (type.getKind() == TypeKind.VOID || isType(type, "java.lang.Void"))
+                return TYPES + ".NONE";
+            String constant = switch (unbox(type)) {
+                case BOOLEAN -> "BOOLEAN";
+                case BYTE, CHAR -> "CHAR";
+                case DOUBLE -> "DOUBLE";
+                case FLOAT -> "FLOAT";
+                case INT -> "INT";
+                case LONG -> "LONG";
+                default -> null;
+            };
+            if (constant != null)
+                return TYPES + "." + constant;
+            if (isType(type, "java.lang.String"))
+                return TYPES + ".STRING";
+            if (isSubtype(type, GOBJECT))
+                return gtype((TypeElement) types.asElement(type));
+            if (isSubtype(type, PROXY_INSTANCE))
+                return TYPES + ".BOXED";
+            if (isSubtype(type, PROXY))
+                return gtype((TypeElement) types.asElement(type));
+            throw new UnsupportedException("cannot infer gtype for " + type
+                    + " used in a signal declaration");
+        }
+
+        private String enumSet(String enumType, List<String> constants) {
+            if (constants.isEmpty())
+                return "java.util.EnumSet.noneOf(" + enumType + ".class)";
+            StringJoiner joiner = new StringJoiner(", ", "java.util.EnumSet.of(", ")");
+            for (String constant : constants)
+                joiner.add(enumType + "." + constant);
+            return joiner.toString();
+        }
+    }
+
+    // A property with its ParamSpec and getter and setter statements
+    private static final class PropertyDeclaration {
+        final String name;
+        final String paramSpec;
+        String getter;
+        String setter;
+
+        PropertyDeclaration(String name, String paramSpec) {
+            this.name = name;
+            this.paramSpec = paramSpec;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Annotation processor that generates registration descriptors for Java
+ * classes that are registered as new GTypes.
+ */
+package io.github.jwharm.javagi.gobject.processing;
@@ -1,9 +1,37 @@
 plugins {
-    id("java-gi.library-conventions")
+    id("java-gi.benchmark-conventions")
 }
 
+// The tests in this source set are compiled with the gobject-processor
+// annotation processor, and use the generated registration descriptors. The
+// regular tests register their classes with reflection.
+val descriptorTest: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets["main"].output
+    runtimeClasspath += sourceSets["main"].output
+}
+
+configurations[descriptorTest.implementationConfigurationName]
+    .extendsFrom(configurations.testImplementation.get())
+configurations[descriptorTest.runtimeOnlyConfigurationName]
+    .extendsFrom(configurations.testRuntimeOnly.get())
+
 dependencies {
     api(project(":glib"))
+
+    // Generate registration descriptors for the GObject classes in the
+    // descriptor tests
+    "descriptorTestAnnotationProcessor"(project(":gobject-processor"))
+}
+
+val descriptorTestTask = tasks.register<Test>("descriptorTest") {
+    description = "Runs the tests with generated registration descriptors."
+    group = "verification"
+    testClassesDirs = descriptorTest.output.classesDirs
+    classpath = descriptorTest.runtimeClasspath
+}
+
+tasks.check {
+    dependsOn(descriptorTestTask)
 }
 
 tasks.withType<GenerateSources> {
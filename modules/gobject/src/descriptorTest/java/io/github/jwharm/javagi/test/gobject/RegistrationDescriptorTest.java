@@ -0,0 +1,156 @@
+package io.github.jwharm.javagi.test.gobject;
+
+import io.github.jwharm.javagi.gobject.annotations.InstanceInit;
+import io.github.jwharm.javagi.gobject.annotations.Property;
+import io.github.jwharm.javagi.gobject.annotations.RegisteredType;
+import io.github.jwharm.javagi.gobject.annotations.Signal;
+import io.github.jwharm.javagi.gobject.types.Properties;
+import io.github.jwharm.javagi.gobject.types.RegistrationDescriptor;
+import io.github.jwharm.javagi.gobject.types.Signals;
+import io.github.jwharm.javagi.gobject.types.Types;
+import org.gnome.glib.Type;
+import org.gnome.gobject.GObject;
+import org.gnome.gobject.GObjects;
+import org.gnome.gobject.ParamSpec;
+import org.gnome.gobject.TypeClass;
+import org.gnome.gobject.TypeFlags;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.MemorySegment;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test registering a class with the registration descriptor that is
+ * generated at compile time, and compare it with registering the same class
+ * with reflection
+ */
+public class RegistrationDescriptorTest {
+
+    @Test
+    void testGeneratedDescriptor() {
+        RegistrationDescriptor<Thermostat> descriptor =
+                Types.getRegistrationDescriptor(Thermostat.class);
+        assertNotNull(descriptor);
+        assertEquals("JavaGiTestThermostat", descriptor.typeName());
+        assertEquals(Set.of(TypeFlags.FINAL), descriptor.typeFlags());
+
+        Thermostat thermostat = GObject.newInstance(Thermostat.gtype,
+                "target", 21, null);
+        assertTrue(thermostat.initialized);
+        assertEquals(21, Properties.getProperty(thermostat, "target"));
+        assertEquals(false, Properties.getProperty(thermostat, "heating"));
+
+        AtomicInteger reached = new AtomicInteger();
+        thermostat.connect("target-reached",
+                (Thermostat.TargetReached) reached::set);
+        Properties.setProperty(thermostat, "current", 21);
+        assertEquals(21, reached.get());
+    }
+
+    @Test
+    void testSameParamSpecs() {
+        assertNotNull(Types.getRegistrationDescriptor(Sampler.class));
+        Type generated = Sampler.gtype;
+
+        // Register the same class again with reflection, with another name
+        String name = "JavaGiTestSamplerReflection";
+        Type reflected = Types.register(
+                GObject.getType(),
+                name,
+                Types.getClassLayout(Sampler.class, name),
+                Types.chain(Properties.installProperties(Sampler.class),
+                        Signals.installSignals(Sampler.class)),
+                Types.getInstanceLayout(Sampler.class, name),
+                _ -> {},
+                Sampler::new,
+                Set.of(TypeFlags.FINAL));
+        assertNotNull(reflected);
+
+        var generatedClass = (GObject.ObjectClass) TypeClass.ref(generated);
+        var reflectedClass = (GObject.ObjectClass) TypeClass.ref(reflected);
+        ParamSpec[] expected = reflectedClass.listProperties();
+        ParamSpec[] actual = generatedClass.listProperties();
+        assertEquals(expected.length, actual.length);
+
+        for (ParamSpec pspec : expected) {
+            String property = pspec.getName();
+            ParamSpec other = generatedClass.findProperty(property);
+            assertNotNull(other, property);
+            assertEquals(pspec.readGClass().readGType(),
+                    other.readGClass().readGType(), property);
+            assertEquals(pspec.readValueType(), other.readValueType(), property);
+            assertEquals(pspec.readFlags(), other.readFlags(), property);
+            assertEquals(pspec.getNick(), other.getNick(), property);
+            assertEquals(pspec.getBlurb(), other.getBlurb(), property);
+            assertEquals(GObjects.strdupValueContents(pspec.getDefaultValue()),
+                    GObjects.strdupValueContents(other.getDefaultValue()),
+                    property);
+        }
+    }
+
+    @RegisteredType(name="JavaGiTestThermostat")
+    public static final class Thermostat extends GObject {
+        public static Type gtype = Types.register(Thermostat.class);
+
+        public Thermostat(MemorySegment address) {
+            super(address);
+        }
+
+        @Signal
+        public interface TargetReached extends IntConsumer {}
+
+        private boolean initialized;
+        private int target;
+        private int current;
+
+        @InstanceInit
+        public void init() {
+            initialized = true;
+        }
+
+        @Property public int getTarget() { return target; }
+        @Property public void setTarget(int target) { this.target = target; }
+        @Property(writable=false) public boolean getHeating() { return current < target; }
+
+        @Property
+        public void setCurrent(int current) {
+            this.current = current;
+            if (current == target)
+                emit("target-reached", target);
+        }
+    }
+
+    @RegisteredType(name="JavaGiTestSampler")
+    public static final class Sampler extends GObject {
+        public static Type gtype = Types.register(Sampler.class);
+
+        public Sampler(MemorySegment address) {
+            super(address);
+        }
+
+        private boolean enabled;
+        private int count;
+        private long total;
+        private float ratio;
+        private double rate;
+        private String label;
+        private Type kind;
+
+        @Property public boolean getEnabled() { return enabled; }
+        @Property public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        @Property(construct=true) public int getCount() { return count; }
+        @Property(construct=true) public void setCount(int count) { this.count = count; }
+        @Property(writable=false) public long getTotal() { return total; }
+        @Property(explicitNotify=true) public float getRatio() { return ratio; }
+        @Property(explicitNotify=true) public void setRatio(float ratio) { this.ratio = ratio; }
+        @Property(readable=false) public void setRate(double rate) { this.rate = rate; }
+        @Property(name="text") public String getLabel() { return label; }
+        @Property(name="text") public void setLabel(String label) { this.label = label; }
+        @Property public Type getKind() { return kind; }
+        @Property public void setKind(Type kind) { this.kind = kind; }
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.jwharm.javagi.benchmark.gobject;
+
+import io.github.jwharm.javagi.gobject.annotations.GType;
+import io.github.jwharm.javagi.gobject.annotations.RegisteredType;
+import io.github.jwharm.javagi.gobject.annotations.Signal;
+import io.github.jwharm.javagi.gobject.types.Signals;
+import io.github.jwharm.javagi.gobject.types.Types;
+import org.gnome.glib.Type;
+import org.gnome.gobject.GObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Compare the cost of emitting a signal with {@code GObject.emit()}, with the
+ * generic {@code Signals.emit()} method and with its typed overload for a
+ * single integer parameter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignalEmitBenchmark {
+
+    private Emitter emitter;
+    private int sum;
+
+    @Setup
+    public void setup() {
+        emitter = GObject.newInstance(Emitter.getType());
+        emitter.connect("tick", (Emitter.Tick) value -> sum += value);
+    }
+
+    @Benchmark
+    public int gobjectEmit() {
+        emitter.emit("tick", 1);
+        return sum;
+    }
+
+    @Benchmark
+    public int signalsEmit() {
+        Signals.emit(emitter, "tick", (Object) 1);
+        return sum;
+    }
+
+    @Benchmark
+    public int signalsEmitTyped() {
+        Signals.emit(emitter, "tick", 1L);
+        return sum;
+    }
+
+    @RegisteredType(name="BenchmarkEmitter")
+    public static class Emitter extends GObject {
+        private static final Type gtype = Types.register(Emitter.class);
+
+        @GType
+        public static Type getType() {
+            return gtype;
+        }
+
+        public Emitter(MemorySegment address) {
+            super(address);
+        }
+
+        @Signal
+        public interface Tick extends IntConsumer {}
+    }
+}
@@ -21,7 +21,6 @@ package io.github.jwharm.javagi.gobject;
 
 import io.github.jwharm.javagi.base.FunctionPointer;
 import io.github.jwharm.javagi.gobject.types.Signals;
-import io.github.jwharm.javagi.interop.Arenas;
 import io.github.jwharm.javagi.interop.Interop;
 import org.gnome.gobject.ConnectFlags;
 import org.gnome.gobject.Value;
@@ -120,20 +119,11 @@ public abstract class Builder<S extends Builder> implements BuilderInterface {
      * @param handle pointer to the newly created object
      */
     public void connectSignals(MemorySegment handle) {
-        for (var s : connectRequests) {
-            try {
-                var _callbackArena = Arena.ofShared();
-                var result = (long) Signals.g_signal_connect_data.invokeExact(
-                        handle,
-                        Interop.allocateNativeString(s.name, arena),
-                        s.callback.toCallback(_callbackArena),
-                        Arenas.cacheArena(_callbackArena),
-                        Arenas.CLOSE_CB_SYM,
-                        ConnectFlags.DEFAULT.getValue());
-            } catch (Throwable _err) {
-                throw new AssertionError(_err);
-            }
-        }
+        for (var s : connectRequests)
+            Signals.connect(handle,
+                    Interop.allocateNativeString(s.name, arena),
+                    s.callback,
+                    ConnectFlags.DEFAULT.getValue());
     }
 
     /**
@@ -24,13 +24,16 @@ import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.ref.Cleaner;
 import java.lang.ref.WeakReference;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import io.github.jwharm.javagi.base.Floating;
 import io.github.jwharm.javagi.base.GLibLogger;
 import io.github.jwharm.javagi.gobject.types.TypeCache;
 import io.github.jwharm.javagi.gobject.types.Types;
+import io.github.jwharm.javagi.interop.ConcurrentLongMap;
 import io.github.jwharm.javagi.interop.Interop;
 import org.gnome.glib.GLib;
 import org.gnome.glib.MainContext;
@@ -45,39 +48,57 @@ import io.github.jwharm.javagi.base.Proxy;
  */
 public class InstanceCache {
 
-    private sealed interface Ref permits Ref.Strong, Ref.Weak {
+    /*
+     * A cached Proxy instance. The reference is strong while native code
+     * holds other references to the object, and weak when the toggle
+     * reference is the last one. Toggling does not allocate.
+     */
+    private static final class Ref {
+        private final WeakReference<Proxy> weak;
+        private volatile Proxy strong;
 
-        record Strong(Proxy proxy) implements Ref {
-            public Proxy get() {
-                return proxy;
-            }
+        Ref(Proxy proxy) {
+            this.weak = new WeakReference<>(proxy);
+            this.strong = proxy;
         }
 
-        record Weak(WeakReference<Proxy> proxy) implements Ref {
-            Weak(Proxy proxy) {
-                this(new WeakReference<>(proxy));
-            }
-            public Proxy get() {
-                return proxy == null ? null : proxy.get();
-            }
+        Proxy get() {
+            Proxy proxy = strong;
+            return proxy != null ? proxy : weak.get();
         }
 
-        Proxy get();
-
-        default Ref asWeak() {
-            return this instanceof Weak ? this : new Weak(get());
+        void makeWeak() {
+            strong = null;
         }
 
-        default Ref asStrong() {
-            return this instanceof Strong ? this : new Strong(get());
+        void makeStrong() {
+            strong = weak.get();
         }
     }
 
-    private static final ConcurrentHashMap<MemorySegment, Ref> references
-            = new ConcurrentHashMap<>();
+    // Cached instances, keyed by memory address
+    private static final ConcurrentLongMap<Ref> references
+            = new ConcurrentLongMap<>();
 
     private static final Cleaner CLEANER = Cleaner.create();
 
+    /*
+     * Maximum number of toggle references that are removed in one main loop
+     * iteration, and the maximum time (in milliseconds) that is spent on it.
+     */
+    private static final int TOGGLE_REF_BATCH_SIZE =
+            Integer.getInteger("javagi.toggleRefBatchSize", 1024);
+    private static final long TOGGLE_REF_TIME_BUDGET = 1_000_000L
+            * Long.getLong("javagi.toggleRefTimeBudget", 2);
+
+    // Addresses of garbage-collected objects with a toggle reference
+    private static final ConcurrentLinkedQueue<MemorySegment> pendingToggleRefs
+            = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger pendingToggleRefCount = new AtomicInteger();
+    private static final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private static volatile long drainScheduledAt;
+    private static volatile long drainLatency;
+
     private static final MethodHandle g_object_add_toggle_ref =
             Interop.downcallHandle(
                     "g_object_add_toggle_ref",
@@ -137,7 +158,7 @@ public class InstanceCache {
             return null;
 
         // Get instance from cache
-        Ref ref = references.get(address);
+        Ref ref = references.get(address.address());
         return ref == null ? null : ref.get();
     }
 
@@ -156,6 +177,28 @@ public class InstanceCache {
     public static Proxy getForType(MemorySegment address,
                                    Function<MemorySegment, ? extends Proxy> fallback,
                                    boolean cache) {
+        return getForType(address, null, fallback, cache);
+    }
+
+    /**
+     * Get a {@link Proxy} object for the provided native memory address. If a
+     * Proxy object does not yet exist for this address, a new Proxy object is
+     * instantiated and added to the cache. The type of the Proxy object is
+     * read from the gtype field of the native instance. When the type is not
+     * registered, a constructor of a parent type or interface is used if it
+     * creates instances of the declared class. Invalid references are removed
+     * from the cache using a GObject toggle reference.
+     *
+     * @param  address  memory address of the native object
+     * @param  cls      the declared class of the result
+     * @param  fallback fallback constructor to use when the type is not found
+     *                  in the TypeCache
+     * @return a Proxy instance for the provided memory address
+     */
+    public static Proxy getForType(MemorySegment address,
+                                   Class<?> cls,
+                                   Function<MemorySegment, ? extends Proxy> fallback,
+                                   boolean cache) {
         
         // Get instance from the cache
         Proxy instance = get(address);
@@ -164,7 +207,7 @@ public class InstanceCache {
 
         // Get constructor from the type registry
         Function<MemorySegment, ? extends Proxy> ctor =
-                TypeCache.getConstructor(address, fallback);
+                TypeCache.getConstructor(address, cls, fallback);
         if (ctor == null)
             return null;
 
@@ -284,7 +327,7 @@ public class InstanceCache {
      */
     public static Proxy put(MemorySegment address, Proxy object) {
         // If it was already cached, putIfAbsent() will return the existing one
-        Ref existing = references.putIfAbsent(address, new Ref.Strong(object));
+        Ref existing = references.putIfAbsent(address.address(), new Ref(object));
         if (existing != null)
             return existing.get();
 
@@ -334,16 +377,102 @@ public class InstanceCache {
                                            int isLastRef) {
         GLibLogger.debug("Toggle %ld, is_last_ref=%d",
                 object == null ? 0 : object.address(), isLastRef);
+        Ref ref = references.get(object.address());
+        if (ref == null)
+            return;
+
         if (isLastRef != 0)
-            references.computeIfPresent(object, (_, v) -> v.asWeak());
+            ref.makeWeak();
+        else
+            ref.makeStrong();
+    }
+
+    /**
+     * Get the number of garbage-collected GObject instances of which the
+     * toggle reference has not been removed yet.
+     *
+     * @return the number of pending toggle references
+     */
+    public static int pendingToggleRefs() {
+        return pendingToggleRefCount.get();
+    }
+
+    /**
+     * Get the time between the most recent scheduling of the toggle reference
+     * queue in the default GLib MainContext, and the moment it was processed.
+     *
+     * @return the latency in nanoseconds
+     */
+    public static long toggleRefDrainLatency() {
+        return drainLatency;
+    }
+
+    // Schedule an idle source that removes the pending toggle references,
+    // unless one is already scheduled
+    private static void scheduleDrain() {
+        if (!drainScheduled.compareAndSet(false, true))
+            return;
+
+        drainScheduledAt = System.nanoTime();
+
+        // g_object_remove_toggle_ref must be called from the main context
+        var defaultContext = MainContext.default_();
+        if (defaultContext != null)
+            defaultContext.invoke(InstanceCache::drainToggleRefs);
         else
-            references.computeIfPresent(object, (_, v) -> v.asStrong());
+            while (drainToggleRefs() == GLib.SOURCE_CONTINUE) {
+                // Keep going until the queue is empty
+            }
+    }
+
+    /*
+     * Remove pending toggle references, until the batch size or time budget
+     * is exhausted. When there are more, the source continues in the next
+     * main loop iteration.
+     */
+    private static boolean drainToggleRefs() {
+        long start = System.nanoTime();
+        drainLatency = start - drainScheduledAt;
+
+        MemorySegment address;
+        int count = 0;
+        while ((address = pendingToggleRefs.poll()) != null) {
+            pendingToggleRefCount.decrementAndGet();
+            removeToggleRef(address);
+            if (++count >= TOGGLE_REF_BATCH_SIZE
+                    || System.nanoTime() - start >= TOGGLE_REF_TIME_BUDGET) {
+                drainScheduledAt = System.nanoTime();
+                return GLib.SOURCE_CONTINUE;
+            }
+        }
+
+        drainScheduled.set(false);
+
+        // An address could have been added after the queue was found empty
+        if (!pendingToggleRefs.isEmpty() && drainScheduled.compareAndSet(false, true)) {
+            drainScheduledAt = System.nanoTime();
+            return GLib.SOURCE_CONTINUE;
+        }
+        return GLib.SOURCE_REMOVE;
+    }
+
+    // Calls g_object_remove_toggle_ref and removes the instance from the cache
+    private static void removeToggleRef(MemorySegment address) {
+        GLibLogger.debug("Unref %ld", address.address());
+        try {
+            g_object_remove_toggle_ref.invokeExact(
+                    address, toggle_notify, MemorySegment.NULL);
+        } catch (Throwable _err) {
+            throw new AssertionError("Unexpected exception occurred: ", _err);
+        }
+        references.remove(address.address());
     }
 
     /**
      * This callback is run by the {@link Cleaner} when a {@link GObject}
      * instance has become unreachable, to remove the toggle reference. The
-     * reference is removed in the default GLib MainContext.
+     * address is added to a queue, that is processed in batches in the
+     * default GLib MainContext.
      *
      * @param address memory address of the object instance to be cleaned
      */
@@ -354,24 +483,9 @@ public class InstanceCache {
             if (address == null)
                 return;
 
-            // g_object_remove_toggle_ref must be called from the main context
-            var defaultContext = MainContext.default_();
-            if (defaultContext != null)
-                defaultContext.invoke(this::removeToggleRef);
-            else
-                removeToggleRef();
-        }
-
-        private boolean removeToggleRef() {
-            GLibLogger.debug("Unref %ld", address.address());
-            try {
-                g_object_remove_toggle_ref.invokeExact(
-                        address, toggle_notify, MemorySegment.NULL);
-            } catch (Throwable _err) {
-                throw new AssertionError("Unexpected exception occurred: ", _err);
-            }
-            InstanceCache.references.remove(address);
-            return GLib.SOURCE_REMOVE;
+            pendingToggleRefs.add(address);
+            pendingToggleRefCount.incrementAndGet();
+            scheduleDrain();
         }
     }
 }
@@ -20,14 +20,20 @@
 package io.github.jwharm.javagi.gobject;
 
 import java.lang.foreign.MemorySegment;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 
+import io.github.jwharm.javagi.gobject.types.Types;
 import io.github.jwharm.javagi.interop.MemoryCleaner;
 import org.gnome.glib.GLib;
 import org.gnome.glib.LogLevelFlags;
+import org.gnome.glib.Type;
 import org.gnome.gobject.Closure;
 import org.gnome.gobject.Value;
 
@@ -35,8 +41,9 @@ import static io.github.jwharm.javagi.Constants.LOG_DOMAIN;
 
 /**
  * An implementation of {@link Closure} that can be used with Java callbacks.
- * In most cases, the callback will be invoked using reflection. For two common 
- * cases (Runnable and BooleanSupplier), the callback will be invoked directly.
+ * In most cases, the callback will be invoked through a method handle. For two
+ * common cases (Runnable and BooleanSupplier), the callback will be invoked
+ * directly.
  */
 public class JavaClosure extends Closure {
 
@@ -74,8 +81,8 @@ public class JavaClosure extends Closure {
     }
 
     /**
-     * Construct a {@link Closure} that will invoke the provided Java lambda
-     * using reflection. The Closure function arguments are read from the
+     * Construct a {@link Closure} that will invoke the provided Java lambda.
+     * The Closure function arguments are read from the
      * argument-{@link Value} containers and passed to the lambda. The return
      * value of the lambda is put in the Closure return-{@link Value}.
      *
@@ -122,10 +129,15 @@ public class JavaClosure extends Closure {
     }
 
     /**
-     * Construct a {@link Closure} that will invoke the provided Java method
-     * using reflection. The Closure function arguments are read from the
-     * argument-{@link Value} containers and passed to the method. The return
-     * value of the method is put in the Closure return-{@link Value}.
+     * Construct a {@link Closure} that will invoke the provided Java method.
+     * The Closure function arguments are read from the argument-{@link Value}
+     * containers and passed to the method. The return value of the method is
+     * put in the Closure return-{@link Value}.
+     * <p>
+     * The method is resolved to a {@link MethodHandle} when the closure is
+     * created, and a reader for every parameter is selected based on the
+     * declared parameter type. Methods with up to three parameters are
+     * invoked without allocating an argument array.
      *
      * @param instance a class instance on which the provided method will be
      *                 invoked. When the method is static, this parameter is
@@ -135,44 +147,156 @@ public class JavaClosure extends Closure {
      */
     public JavaClosure(Object instance, Method method) {
         this(simple((int) getMemoryLayout().byteSize(), null).handle());
+
+        MethodHandle handle;
+        try {
+            handle = getMethodHandle(instance, method);
+        } catch (Exception e) {
+            // Fall back to reflection
+            setMarshal((closure, returnValue, paramValues, hint, data) ->
+                    invokeReflective(instance, method, returnValue, paramValues));
+            return;
+        }
+
+        int arity = method.getParameterCount();
+        var readers = getValueReaders(method.getParameterTypes());
+        boolean hasResult = method.getReturnType() != void.class;
+
         setMarshal((closure, returnValue, paramValues, hint, data) -> {
             try {
-                Object[] parameterObjects;
-                if (paramValues == null || paramValues.length == 0) {
-                    parameterObjects = new Object[0];
-                } else {
-                    // Convert the parameter Values into Java Objects
-                    parameterObjects = new Object[paramValues.length - 1];
-                    for (int v = 1; v < paramValues.length; v++) {
-                        Object o = ValueUtil.valueToObject(paramValues[v]);
-                        parameterObjects[v - 1] = o;
+                int nValues = paramValues == null ? 0 : paramValues.length - 1;
+                if (nValues != arity && !(arity == 0 && nValues <= 0))
+                    throw new IllegalArgumentException("expected %d arguments, got %d"
+                            .formatted(arity, nValues));
+
+                // Parameter value 0 is the instance
+                Object result = switch (arity) {
+                    case 0 -> handle.invokeExact();
+                    case 1 -> handle.invokeExact(
+                            readers[0].apply(paramValues[1]));
+                    case 2 -> handle.invokeExact(
+                            readers[0].apply(paramValues[1]),
+                            readers[1].apply(paramValues[2]));
+                    case 3 -> handle.invokeExact(
+                            readers[0].apply(paramValues[1]),
+                            readers[1].apply(paramValues[2]),
+                            readers[2].apply(paramValues[3]));
+                    default -> {
+                        Object[] args = new Object[arity];
+                        for (int i = 0; i < arity; i++)
+                            args[i] = readers[i].apply(paramValues[i + 1]);
+                        yield handle.invokeExact(args);
                     }
-                }
-                // Invoke the method
-                method.setAccessible(true);
-                Object result = method.invoke(instance, parameterObjects);
+                };
 
                 // Convert the returned Object to a GValue
-                ValueUtil.objectToValue(result, returnValue);
-            } catch (InvocationTargetException e) {
+                if (hasResult)
+                    ValueUtil.objectToValue(result, returnValue);
+            } catch (Throwable e) {
                 GLib.log(
                     LOG_DOMAIN,
                     LogLevelFlags.LEVEL_CRITICAL,
                     "JavaClosure: Exception in method %s in class %s: %s\n",
                     method.getName(),
                     instance == null ? "null" : instance.getClass().getName(),
-                    e.getCause().toString()
-                );
-            } catch (Exception e) {
-                GLib.log(
-                    LOG_DOMAIN,
-                    LogLevelFlags.LEVEL_CRITICAL,
-                    "JavaClosure: Cannot invoke method %s in class %s: %s\n",
-                    method == null ? "null" : method.getName(),
-                    instance == null ? "null" : instance.getClass().getName(),
                     e.toString()
                 );
             }
         });
     }
+
+    /*
+     * Get a method handle for the method, bound to the instance (unless the
+     * method is static). The handle takes and returns Objects; with more than
+     * three parameters, the arguments are passed in an Object[].
+     */
+    private static MethodHandle getMethodHandle(Object instance, Method method)
+            throws IllegalAccessException {
+        method.setAccessible(true);
+        MethodHandle handle = MethodHandles.lookup().unreflect(method);
+        if (!Modifier.isStatic(method.getModifiers()))
+            handle = handle.bindTo(instance);
+
+        int arity = method.getParameterCount();
+        handle = handle.asType(MethodType.genericMethodType(arity));
+        if (arity > 3)
+            handle = handle.asSpreader(Object[].class, arity);
+        return handle;
+    }
+
+    /*
+     * Select a reader for each parameter. For common parameter types, the
+     * value is read directly when the GValue has the expected type. In all
+     * other cases, ValueUtil.valueToObject() is used.
+     */
+    private static Function<Value, Object>[] getValueReaders(Class<?>[] types) {
+        @SuppressWarnings("unchecked")
+        Function<Value, Object>[] readers = new Function[types.length];
+        for (int i = 0; i < types.length; i++) {
+            Class<?> cls = types[i];
+            if (cls == int.class || cls == Integer.class)
+                readers[i] = reader(Types.INT, Value::getInt);
+            else if (cls == boolean.class || cls == Boolean.class)
+                readers[i] = reader(Types.BOOLEAN, Value::getBoolean);
+            else if (cls == double.class || cls == Double.class)
+                readers[i] = reader(Types.DOUBLE, Value::getDouble);
+            else if (cls == float.class || cls == Float.class)
+                readers[i] = reader(Types.FLOAT, Value::getFloat);
+            else if (cls == String.class)
+                readers[i] = reader(Types.STRING, Value::getString);
+            else
+                readers[i] = ValueUtil::valueToObject;
+        }
+        return readers;
+    }
+
+    private static Function<Value, Object> reader(Type expected,
+                                                  Function<Value, Object> getter) {
+        return value -> value != null && expected.equals(value.readGType())
+                ? getter.apply(value)
+                : ValueUtil.valueToObject(value);
+    }
+
+    // Invoke the method using reflection
+    private static void invokeReflective(Object instance,
+                                         Method method,
+                                         Value returnValue,
+                                         Value[] paramValues) {
+        try {
+            Object[] parameterObjects;
+            if (paramValues == null || paramValues.length == 0) {
+                parameterObjects = new Object[0];
+            } else {
+                // Convert the parameter Values into Java Objects
+                parameterObjects = new Object[paramValues.length - 1];
+                for (int v = 1; v < paramValues.length; v++) {
+                    Object o = ValueUtil.valueToObject(paramValues[v]);
+                    parameterObjects[v - 1] = o;
+                }
+            }
+            // Invoke the method
+            Object result = method.invoke(instance, parameterObjects);
+
+            // Convert the returned Object to a GValue
+            ValueUtil.objectToValue(result, returnValue);
+        } catch (InvocationTargetException e) {
+            GLib.log(
+                LOG_DOMAIN,
+                LogLevelFlags.LEVEL_CRITICAL,
+                "JavaClosure: Exception in method %s in class %s: %s\n",
+                method.getName(),
+                instance == null ? "null" : instance.getClass().getName(),
+                e.getCause().toString()
+            );
+        } catch (Exception e) {
+            GLib.log(
+                LOG_DOMAIN,
+                LogLevelFlags.LEVEL_CRITICAL,
+                "JavaClosure: Cannot invoke method %s in class %s: %s\n",
+                method == null ? "null" : method.getName(),
+                instance == null ? "null" : instance.getClass().getName(),
+                e.toString()
+            );
+        }
+    }
 }
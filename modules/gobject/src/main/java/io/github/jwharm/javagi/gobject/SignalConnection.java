@@ -55,7 +55,7 @@ public class SignalConnection<T> {
      */
     public SignalConnection(MemorySegment instance, int handlerId) {
         this.instance = (GObject) InstanceCache.getForType(
-                instance, GObject::new, true);
+                instance, GObject.class, GObject::new, true);
         this.handlerId = handlerId;
         this.closure = null;
     }
@@ -72,7 +72,7 @@ public class SignalConnection<T> {
                             int handlerId,
                             Closure closure) {
         this.instance = (GObject) InstanceCache.getForType(
-                instance, GObject::new, true);
+                instance, GObject.class, GObject::new, true);
         this.handlerId = handlerId;
         this.closure = closure;
     }
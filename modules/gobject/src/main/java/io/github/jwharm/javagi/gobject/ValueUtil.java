@@ -20,11 +20,15 @@
 package io.github.jwharm.javagi.gobject;
 
 import java.lang.foreign.MemorySegment;
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 
+import io.github.jwharm.javagi.interop.ConcurrentLongMap;
 import org.gnome.glib.GLib;
 import org.gnome.glib.LogLevelFlags;
 import org.gnome.glib.Type;
+import org.gnome.glib.Variant;
 import org.gnome.gobject.*;
 
 import io.github.jwharm.javagi.base.Enumeration;
@@ -36,9 +40,94 @@ import static org.gnome.gobject.GObjects.typeIsA;
 
 /**
  * Utility functions to convert a {@link Value} to and from a Java Object.
+ * <p>
+ * The conversion is selected with a switch on the fundamental type of the
+ * GValue. For derived types, the fundamental type is resolved once per GType
+ * and cached.
  */
 public class ValueUtil {
-    
+
+    // Fundamental type ids, adapted from <gobject/gtype.h>
+    private static final int G_TYPE_INVALID = 0;
+    private static final int G_TYPE_NONE = 1;
+    private static final int G_TYPE_INTERFACE = 2;
+    private static final int G_TYPE_CHAR = 3;
+    private static final int G_TYPE_UCHAR = 4;
+    private static final int G_TYPE_BOOLEAN = 5;
+    private static final int G_TYPE_INT = 6;
+    private static final int G_TYPE_UINT = 7;
+    private static final int G_TYPE_LONG = 8;
+    private static final int G_TYPE_ULONG = 9;
+    private static final int G_TYPE_INT64 = 10;
+    private static final int G_TYPE_UINT64 = 11;
+    private static final int G_TYPE_ENUM = 12;
+    private static final int G_TYPE_FLAGS = 13;
+    private static final int G_TYPE_FLOAT = 14;
+    private static final int G_TYPE_DOUBLE = 15;
+    private static final int G_TYPE_STRING = 16;
+    private static final int G_TYPE_POINTER = 17;
+    private static final int G_TYPE_BOXED = 18;
+    private static final int G_TYPE_PARAM = 19;
+    private static final int G_TYPE_OBJECT = 20;
+    private static final int G_TYPE_VARIANT = 21;
+
+    // Not a fundamental type: the GType of GType values
+    private static final int G_TYPE_GTYPE = -1;
+
+    private static final int FUNDAMENTAL_SHIFT = 2;
+
+    // Resolved fundamental type ids of derived types, keyed by GType
+    private static final ConcurrentLongMap<Integer> derivedTypes =
+            new ConcurrentLongMap<>();
+
+    /*
+     * On Linux: Value.setLong(long), on Windows: Value.setLong(int). The
+     * method is resolved once and adapted to (Value, long).
+     */
+    private static final MethodHandle setLong = findLongSetter("setLong");
+    private static final MethodHandle setUlong = findLongSetter("setUlong");
+
+    private static MethodHandle findLongSetter(String name) {
+        for (var m : Value.class.getDeclaredMethods()) {
+            if (name.equals(m.getName()) && m.getParameterCount() == 1) {
+                try {
+                    return MethodHandles.explicitCastArguments(
+                            MethodHandles.publicLookup().unreflect(m),
+                            MethodType.methodType(void.class, Value.class, long.class));
+                } catch (IllegalAccessException e) {
+                    throw new AssertionError(e);
+                }
+            }
+        }
+        throw new AssertionError("Value." + name + " not found");
+    }
+
+    // Get the fundamental type id of the GType
+    private static int typeId(Type type) {
+        long gtype = type.getValue();
+        if (IS_FUNDAMENTAL(gtype))
+            return (int) (gtype >> FUNDAMENTAL_SHIFT);
+
+        Integer id = derivedTypes.get(gtype);
+        if (id == null)
+            id = derivedTypes.computeIfAbsent(gtype, ValueUtil::resolveTypeId);
+        return id;
+    }
+
+    private static Integer resolveTypeId(long gtype) {
+        Type type = Type.of(gtype);
+        if (type.equals(gtypeGetType()))
+            return G_TYPE_GTYPE;
+
+        int id = (int) (GObjects.typeFundamental(type).getValue() >> FUNDAMENTAL_SHIFT);
+
+        // An interface with a GObject prerequisite holds an object
+        if (id == G_TYPE_INTERFACE)
+            return typeIsA(type, OBJECT) ? G_TYPE_OBJECT : G_TYPE_BOXED;
+
+        return id;
+    }
+
     /**
      * Read the GType from the GValue, call the corresponding getter (using the
      * methods defined in the {@link Value} proxy class), and return the result.
@@ -54,35 +143,80 @@ public class ValueUtil {
         }
         
         Type type = src.readGType();
-        
-        if (type == null || type.equals(NONE)) {
+        if (type == null) {
             return null;
         }
 
-        // Fundamental types
-        if (type.equals(BOOLEAN))        return src.getBoolean();
-        if (type.equals(CHAR))           return src.getSchar();
-        if (type.equals(DOUBLE))         return src.getDouble();
-        if (type.equals(FLOAT))          return src.getFloat();
-        if (type.equals(INT))            return src.getInt();
-        if (type.equals(LONG))           return src.getLong();
-        if (type.equals(STRING))         return src.getString();
-        if (type.equals(ENUM))           return src.getEnum();
-        if (type.equals(FLAGS))          return src.getFlags();
-        if (type.equals(OBJECT))         return src.getObject();
-        if (type.equals(POINTER))        return src.getPointer();
-        if (type.equals(PARAM))          return src.getParam();
-
-        // GType
-        if (type.equals(gtypeGetType())) return src.getGtype();
-
-        // Derived types
-        if (typeIsA(type, OBJECT))       return src.getObject();
-        if (typeIsA(type, ENUM))         return src.getEnum();
-        if (typeIsA(type, FLAGS))        return src.getFlags();
-
-        // Boxed types
-        return src.getBoxed();
+        return switch (typeId(type)) {
+            case G_TYPE_INVALID, G_TYPE_NONE -> null;
+            case G_TYPE_CHAR    -> src.getSchar();
+            case G_TYPE_UCHAR   -> src.getUchar();
+            case G_TYPE_BOOLEAN -> src.getBoolean();
+            case G_TYPE_INT     -> src.getInt();
+            case G_TYPE_UINT    -> src.getUint();
+            case G_TYPE_LONG    -> src.getLong();
+            case G_TYPE_ULONG   -> src.getUlong();
+            case G_TYPE_INT64   -> src.getInt64();
+            case G_TYPE_UINT64  -> src.getUint64();
+            case G_TYPE_ENUM    -> src.getEnum();
+            case G_TYPE_FLAGS   -> src.getFlags();
+            case G_TYPE_FLOAT   -> src.getFloat();
+            case G_TYPE_DOUBLE  -> src.getDouble();
+            case G_TYPE_STRING  -> src.getString();
+            case G_TYPE_POINTER -> src.getPointer();
+            case G_TYPE_PARAM   -> src.getParam();
+            case G_TYPE_OBJECT  -> src.getObject();
+            case G_TYPE_VARIANT -> src.getVariant();
+            case G_TYPE_GTYPE   -> src.getGtype();
+            default             -> src.getBoxed();
+        };
+    }
+
+    /**
+     * Read an integer value from the GValue without boxing it. All integer
+     * types, booleans, enums and flags are supported. Unsigned 64-bit values
+     * are returned as-is (in two's complement).
+     *
+     * @param  src a GValue instance
+     * @return the value of the GValue
+     * @throws IllegalArgumentException if the GValue does not contain an
+     *                                  integer value
+     */
+    public static long valueToLong(Value src) {
+        Type type = src.readGType();
+        return switch (type == null ? G_TYPE_INVALID : typeId(type)) {
+            case G_TYPE_CHAR    -> src.getSchar();
+            case G_TYPE_UCHAR   -> Byte.toUnsignedLong(src.getUchar());
+            case G_TYPE_BOOLEAN -> src.getBoolean() ? 1 : 0;
+            case G_TYPE_INT     -> src.getInt();
+            case G_TYPE_UINT    -> Integer.toUnsignedLong(src.getUint());
+            case G_TYPE_LONG    -> src.getLong();
+            case G_TYPE_ULONG   -> src.getUlong();
+            case G_TYPE_INT64   -> src.getInt64();
+            case G_TYPE_UINT64  -> src.getUint64();
+            case G_TYPE_ENUM    -> src.getEnum();
+            case G_TYPE_FLAGS   -> Integer.toUnsignedLong(src.getFlags());
+            default -> throw new IllegalArgumentException(
+                    "GValue does not contain an integer value");
+        };
+    }
+
+    /**
+     * Read a floating-point value from the GValue without boxing it. Integer
+     * values are converted to double.
+     *
+     * @param  src a GValue instance
+     * @return the value of the GValue
+     * @throws IllegalArgumentException if the GValue does not contain a
+     *                                  numeric value
+     */
+    public static double valueToDouble(Value src) {
+        Type type = src.readGType();
+        return switch (type == null ? G_TYPE_INVALID : typeId(type)) {
+            case G_TYPE_FLOAT  -> src.getFloat();
+            case G_TYPE_DOUBLE -> src.getDouble();
+            default            -> valueToLong(src);
+        };
     }
 
     /**
@@ -104,44 +238,30 @@ public class ValueUtil {
             return false;
 
         try {
-            if (type.equals(BOOLEAN)) {
-                dest.setBoolean((Boolean) src);
-            } else if (type.equals(CHAR)) {
-                dest.setSchar((Byte) src);
-            } else if (type.equals(DOUBLE)) {
-                dest.setDouble((Double) src);
-            } else if (type.equals(FLOAT)) {
-                dest.setFloat((Float) src);
-            } else if (type.equals(INT)) {
-                dest.setInt((Integer) src);
-            } else if (type.equals(LONG)) {
-                // On Linux: Value.setLong(long), on Windows: Value.setLong(int)
-                // Use reflection to bypass the type checker
-                for (Method m : Value.class.getDeclaredMethods()) {
-                    if ("setLong".equals(m.getName())) {
-                        m.invoke(dest, src);
-                        break;
-                    }
-                }
-            } else if (type.equals(STRING)) {
-                dest.setString((String) src);
-            } else if (type.equals(ENUM)) {
-                dest.setEnum(((Enumeration) src).getValue());
-            } else if (type.equals(FLAGS)) {
-                dest.setFlags(((Enumeration) src).getValue());
-            } else if (type.equals(OBJECT)) {
-                dest.setObject((GObject) src);
-            } else if (type.equals(gtypeGetType())) {
-                dest.setGtype((Type) src);
-            } else if (type.equals(POINTER)) {
-                dest.setPointer((MemorySegment) src);
-            } else if (type.equals(PARAM)) {
-                dest.setParam((ParamSpec) src);
-            } else {
+            switch (typeId(type)) {
+                case G_TYPE_CHAR    -> dest.setSchar((Byte) src);
+                case G_TYPE_UCHAR   -> dest.setUchar((Byte) src);
+                case G_TYPE_BOOLEAN -> dest.setBoolean((Boolean) src);
+                case G_TYPE_INT     -> dest.setInt((Integer) src);
+                case G_TYPE_UINT    -> dest.setUint((Integer) src);
+                case G_TYPE_LONG    -> setLong.invokeExact(dest, ((Number) src).longValue());
+                case G_TYPE_ULONG   -> setUlong.invokeExact(dest, ((Number) src).longValue());
+                case G_TYPE_INT64   -> dest.setInt64((Long) src);
+                case G_TYPE_UINT64  -> dest.setUint64((Long) src);
+                case G_TYPE_ENUM    -> dest.setEnum(((Enumeration) src).getValue());
+                case G_TYPE_FLAGS   -> dest.setFlags(((Enumeration) src).getValue());
+                case G_TYPE_FLOAT   -> dest.setFloat((Float) src);
+                case G_TYPE_DOUBLE  -> dest.setDouble((Double) src);
+                case G_TYPE_STRING  -> dest.setString((String) src);
+                case G_TYPE_POINTER -> dest.setPointer((MemorySegment) src);
+                case G_TYPE_PARAM   -> dest.setParam((ParamSpec) src);
+                case G_TYPE_OBJECT  -> dest.setObject((GObject) src);
+                case G_TYPE_VARIANT -> dest.setVariant((Variant) src);
+                case G_TYPE_GTYPE   -> dest.setGtype((Type) src);
                 // Boxed value
-                dest.setBoxed((MemorySegment) src);
+                default             -> dest.setBoxed((MemorySegment) src);
             }
-        } catch (Exception e) {
+        } catch (Throwable e) {
             GLib.log(
                     LOG_DOMAIN,
                     LogLevelFlags.LEVEL_CRITICAL,
@@ -155,4 +275,60 @@ public class ValueUtil {
 
         return true;
     }
+
+    /**
+     * Set an integer value in the GValue without boxing it. The value is
+     * converted to the type of the GValue; integer types, booleans, enums
+     * and flags are supported.
+     *
+     * @param  src  the value to put in the GValue
+     * @param  dest the GValue to write to. Should not be {@code null}
+     * @return {@code true} if the value was set, and {@code false} otherwise.
+     */
+    public static boolean longToValue(long src, Value dest) {
+        Type type = dest.readGType();
+        try {
+            switch (type == null ? G_TYPE_INVALID : typeId(type)) {
+                case G_TYPE_CHAR    -> dest.setSchar((byte) src);
+                case G_TYPE_UCHAR   -> dest.setUchar((byte) src);
+                case G_TYPE_BOOLEAN -> dest.setBoolean(src != 0);
+                case G_TYPE_INT     -> dest.setInt((int) src);
+                case G_TYPE_UINT    -> dest.setUint((int) src);
+                case G_TYPE_LONG    -> setLong.invokeExact(dest, src);
+                case G_TYPE_ULONG   -> setUlong.invokeExact(dest, src);
+                case G_TYPE_INT64   -> dest.setInt64(src);
+                case G_TYPE_UINT64  -> dest.setUint64(src);
+                case G_TYPE_ENUM    -> dest.setEnum((int) src);
+                case G_TYPE_FLAGS   -> dest.setFlags((int) src);
+                case G_TYPE_FLOAT   -> dest.setFloat(src);
+                case G_TYPE_DOUBLE  -> dest.setDouble(src);
+                default             -> {
+                    return false;
+                }
+            }
+        } catch (Throwable e) {
+            throw new AssertionError("Unexpected exception occurred: ", e);
+        }
+        return true;
+    }
+
+    /**
+     * Set a floating-point value in the GValue without boxing it. When the
+     * GValue has an integer type, the value is truncated.
+     *
+     * @param  src  the value to put in the GValue
+     * @param  dest the GValue to write to. Should not be {@code null}
+     * @return {@code true} if the value was set, and {@code false} otherwise.
+     */
+    public static boolean doubleToValue(double src, Value dest) {
+        Type type = dest.readGType();
+        switch (type == null ? G_TYPE_INVALID : typeId(type)) {
+            case G_TYPE_FLOAT  -> dest.setFloat((float) src);
+            case G_TYPE_DOUBLE -> dest.setDouble(src);
+            default            -> {
+                return longToValue((long) src, dest);
+            }
+        }
+        return true;
+    }
 }
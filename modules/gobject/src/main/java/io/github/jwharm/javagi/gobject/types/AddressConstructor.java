@@ -0,0 +1,164 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2023 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.gobject.types;
+
+import io.github.jwharm.javagi.base.Proxy;
+import org.gnome.glib.GLib;
+import org.gnome.glib.LogLevelFlags;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.function.Function;
+
+import static io.github.jwharm.javagi.Constants.LOG_DOMAIN;
+
+/**
+ * Creates Proxy instances for a native memory address, using the
+ * memory-address constructor of a class. The constructor is invoked through a
+ * function that is generated with {@link LambdaMetafactory}; when that is not
+ * possible, it is invoked with reflection. Exceptions thrown by the
+ * constructor are logged, and {@code null} is returned.
+ *
+ * @param <T> the type of the Proxy instances
+ */
+final class AddressConstructor<T extends Proxy>
+        implements Function<MemorySegment, T> {
+
+    // One constructor function per class
+    private static final ClassValue<AddressConstructor<?>> CACHE = new ClassValue<>() {
+        @Override
+        protected AddressConstructor<?> computeValue(Class<?> cls) {
+            return create(cls.asSubclass(Proxy.class));
+        }
+    };
+
+    private final Class<T> type;
+    private final Function<MemorySegment, T> factory;
+
+    private AddressConstructor(Class<T> type, Function<MemorySegment, T> factory) {
+        this.type = type;
+        this.factory = factory;
+    }
+
+    /**
+     * Get the memory-address constructor function for the provided class.
+     *
+     * @param  cls the class that declares a constructor with a single
+     *             {@link MemorySegment} parameter
+     * @param  <T> the class must implement the {@link Proxy} interface
+     * @return the constructor function, or null if not found
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends Proxy> AddressConstructor<T> get(Class<T> cls) {
+        return (AddressConstructor<T>) CACHE.get(cls);
+    }
+
+    /**
+     * Wrap a constructor function that creates instances of the provided
+     * class, for example the constructor of a generated
+     * {@link RegistrationDescriptor}.
+     *
+     * @param  cls     the class of the instances that the function creates
+     * @param  factory the constructor function
+     * @param  <T>     the class must implement the {@link Proxy} interface
+     * @return the wrapped constructor function
+     */
+    static <T extends Proxy> AddressConstructor<T> of(
+            Class<T> cls, Function<MemorySegment, T> factory) {
+        return new AddressConstructor<>(cls, factory);
+    }
+
+    /**
+     * The class of the instances that this function creates.
+     *
+     * @return the Proxy class
+     */
+    Class<T> type() {
+        return type;
+    }
+
+    @Override
+    public T apply(MemorySegment address) {
+        try {
+            return factory.apply(address);
+        } catch (Exception e) {
+            GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                    "Exception in constructor for class %s: %s\n",
+                    type.getName(), e.toString());
+            return null;
+        }
+    }
+
+    private static <T extends Proxy> AddressConstructor<T> create(Class<T> cls) {
+        Constructor<T> ctor;
+        try {
+            // Get memory address constructor
+            ctor = cls.getConstructor(MemorySegment.class);
+        } catch (NoSuchMethodException e) {
+            GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                    "Cannot find memory-address constructor definition for class %s: %s\n",
+                    cls.getName(), e.toString());
+            return null;
+        }
+
+        try {
+            return new AddressConstructor<>(cls, spinFactory(cls));
+        } catch (Throwable t) {
+            // Fall back to reflection
+            return new AddressConstructor<>(cls, addr -> newInstance(ctor, addr));
+        }
+    }
+
+    // Generate a Function that invokes the constructor directly
+    @SuppressWarnings("unchecked")
+    private static <T extends Proxy> Function<MemorySegment, T> spinFactory(Class<T> cls)
+            throws Throwable {
+        // Make sure the class is readable from this module
+        AddressConstructor.class.getModule().addReads(cls.getModule());
+        var lookup = MethodHandles.lookup();
+        MethodHandle ctor = lookup.findConstructor(cls,
+                MethodType.methodType(void.class, MemorySegment.class));
+        var site = LambdaMetafactory.metafactory(
+                lookup,
+                "apply",
+                MethodType.methodType(Function.class),
+                MethodType.methodType(Object.class, Object.class),
+                ctor,
+                MethodType.methodType(cls, MemorySegment.class));
+        return (Function<MemorySegment, T>) site.getTarget().invokeExact();
+    }
+
+    private static <T> T newInstance(Constructor<T> ctor, MemorySegment address) {
+        try {
+            return ctor.newInstance(address);
+        } catch (InvocationTargetException ite) {
+            throw ite.getTargetException() instanceof RuntimeException e
+                    ? e
+                    : new RuntimeException(ite.getTargetException());
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
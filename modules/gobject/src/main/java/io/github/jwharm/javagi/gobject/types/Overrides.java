@@ -20,6 +20,7 @@
 package io.github.jwharm.javagi.gobject.types;
 
 import io.github.jwharm.javagi.base.Proxy;
+import io.github.jwharm.javagi.interop.ConcurrentLongMap;
 import io.github.jwharm.javagi.interop.Interop;
 import io.github.jwharm.javagi.interop.InteropException;
 import org.gnome.glib.GLib;
@@ -36,6 +37,7 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static io.github.jwharm.javagi.Constants.LOG_DOMAIN;
 
@@ -387,4 +389,115 @@ public class Overrides {
             throw new InteropException(t);
         }
     }
+
+    /**
+     * A virtual method of the parent class (or of an interface implemented by
+     * the parent class), that is called when an overriding method chains up.
+     * Generated virtual method bindings keep one instance for every virtual
+     * method in a static field.
+     * <p>
+     * The function pointer is looked up and the downcall handle is linked the
+     * first time the virtual method is called for an instance type. The
+     * handle is cached per instance type. The cache is never invalidated,
+     * because class structs are not changed after class_init. Instance types
+     * that inherit the same parent function share the same handle.
+     */
+    public static final class ParentVirtualMethod {
+        private final String name;
+        private final Supplier<MemoryLayout> layout;
+        private final Supplier<Type> ifaceType;
+        private final Supplier<FunctionDescriptor> descriptor;
+
+        // Linked handles, keyed by instance GType and by function address.
+        // Most virtual methods are never chained up to, so the maps are
+        // created when the first handle is linked.
+        private volatile LinkedHandles linked;
+
+        private record LinkedHandles(ConcurrentLongMap<MethodHandle> handles,
+                                     ConcurrentLongMap<MethodHandle> functions) {
+        }
+
+        /**
+         * Create a ParentVirtualMethod for a virtual method in a TypeClass.
+         *
+         * @param name       the name of the virtual method (as defined in
+         *                   the TypeClass)
+         * @param layout     supplies the memory layout of the TypeClass
+         * @param descriptor supplies the function descriptor of the virtual
+         *                   method
+         */
+        public ParentVirtualMethod(String name,
+                                   Supplier<MemoryLayout> layout,
+                                   Supplier<FunctionDescriptor> descriptor) {
+            this(name, layout, null, descriptor);
+        }
+
+        /**
+         * Create a ParentVirtualMethod for a virtual method in a
+         * TypeInterface.
+         *
+         * @param name       the name of the virtual method (as defined in
+         *                   the TypeInterface)
+         * @param layout     supplies the memory layout of the TypeInterface
+         * @param ifaceType  supplies the GType of the interface that declares
+         *                   the virtual method
+         * @param descriptor supplies the function descriptor of the virtual
+         *                   method
+         */
+        public ParentVirtualMethod(String name,
+                                   Supplier<MemoryLayout> layout,
+                                   Supplier<Type> ifaceType,
+                                   Supplier<FunctionDescriptor> descriptor) {
+            this.name = name;
+            this.layout = layout;
+            this.ifaceType = ifaceType;
+            this.descriptor = descriptor;
+        }
+
+        /**
+         * Get the downcall handle for the parent implementation of the
+         * virtual method.
+         *
+         * @param  address the memory address of the object instance
+         * @return the downcall handle
+         * @throws NullPointerException if the parent does not implement the
+         *                              virtual method
+         */
+        public MethodHandle get(MemorySegment address) {
+            long gtype = TypeCache.readGType(address);
+            LinkedHandles linked = linked();
+            MethodHandle handle = linked.handles().get(gtype);
+            if (handle != null)
+                return handle;
+
+            MemorySegment func = ifaceType == null
+                    ? lookupVirtualMethodParent(address, layout.get(), name)
+                    : lookupVirtualMethodParent(address, layout.get(), name,
+                                                ifaceType.get());
+            if (func.equals(MemorySegment.NULL))
+                throw new NullPointerException("No parent implementation of virtual method "
+                        + name);
+
+            handle = linked.functions().computeIfAbsent(func.address(),
+                    _ -> Interop.downcallHandle(func, descriptor.get()));
+            linked.handles().putIfAbsent(gtype, handle);
+            return handle;
+        }
+
+        // Get the maps with linked handles, and create them on first use
+        private LinkedHandles linked() {
+            LinkedHandles result = linked;
+            if (result == null) {
+                synchronized (this) {
+                    result = linked;
+                    if (result == null) {
+                        result = new LinkedHandles(new ConcurrentLongMap<>(),
+                                                   new ConcurrentLongMap<>());
+                        linked = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
 }
@@ -25,7 +25,9 @@ import io.github.jwharm.javagi.gobject.annotations.Property;
 import io.github.jwharm.javagi.base.Proxy;
 import io.github.jwharm.javagi.base.ProxyInstance;
 import io.github.jwharm.javagi.gobject.ValueUtil;
+import io.github.jwharm.javagi.interop.ConcurrentLongMap;
 import io.github.jwharm.javagi.interop.Interop;
+import io.github.jwharm.javagi.interop.ScratchArena;
 import org.gnome.glib.GLib;
 import org.gnome.glib.LogLevelFlags;
 import org.gnome.glib.Type;
@@ -34,13 +36,17 @@ import org.gnome.gobject.*;
 import java.lang.foreign.*;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static io.github.jwharm.javagi.Constants.LOG_DOMAIN;
 
@@ -49,6 +55,57 @@ import static io.github.jwharm.javagi.Constants.LOG_DOMAIN;
  */
 public class Properties {
 
+    private static final MethodHandle g_object_setv = Interop.downcallHandle(
+            "g_object_setv",
+            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS, ValueLayout.JAVA_INT,
+                    ValueLayout.ADDRESS, ValueLayout.ADDRESS),
+            false);
+
+    private static final MethodHandle g_object_getv = Interop.downcallHandle(
+            "g_object_getv",
+            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS, ValueLayout.JAVA_INT,
+                    ValueLayout.ADDRESS, ValueLayout.ADDRESS),
+            false);
+
+    /*
+     * Resolved property metadata: the property name as a native string, and
+     * the GType of the property value.
+     */
+    private record PropertyInfo(MemorySegment name, Type valueType) {
+    }
+
+    // Resolved properties, keyed by the GType of the object class and the
+    // property name
+    private static final ConcurrentLongMap<Map<String, PropertyInfo>> propertyInfos
+            = new ConcurrentLongMap<>();
+
+    /*
+     * Get the metadata of a property of a GObject class. The GParamSpec is
+     * looked up only the first time.
+     */
+    private static PropertyInfo getPropertyInfo(long gtype,
+                                                String propertyName,
+                                                Supplier<GObject.ObjectClass> objectClass) {
+        var properties = propertyInfos.computeIfAbsent(gtype,
+                _ -> new ConcurrentHashMap<>());
+        var info = properties.get(propertyName);
+        if (info == null) {
+            Type valueType = readPropertyValueType(objectClass.get(), propertyName);
+            info = new PropertyInfo(Arena.global().allocateFrom(propertyName), valueType);
+            var existing = properties.putIfAbsent(propertyName, info);
+            if (existing != null)
+                info = existing;
+        }
+        return info;
+    }
+
+    private static PropertyInfo getPropertyInfo(GObject gobject,
+                                                String propertyName) {
+        return getPropertyInfo(TypeCache.readGType(gobject.handle()),
+                propertyName,
+                () -> (GObject.ObjectClass) gobject.readGClass());
+    }
+
     /**
      * Read the GType of the GParamSpec of a GObject property.
      *
@@ -81,14 +138,8 @@ public class Properties {
      */
     public static void setProperty(GObject gobject, String propertyName,
                                    Object propertyValue) {
-        GObject.ObjectClass gclass = (GObject.ObjectClass) gobject.readGClass();
-        Type valueType = readPropertyValueType(gclass, propertyName);
-        try (var arena = Arena.ofConfined()) {
-            var gvalue = new Value(arena).init(valueType);
-            ValueUtil.objectToValue(propertyValue, gvalue);
-            gobject.setProperty(propertyName, gvalue);
-            gvalue.unset();
-        }
+        setProperties(gobject, new String[] {propertyName},
+                new Object[] {propertyValue});
     }
 
     /**
@@ -101,15 +152,100 @@ public class Properties {
      *                                  found for the object
      */
     public static Object getProperty(GObject gobject, String propertyName) {
-        GObject.ObjectClass gclass = (GObject.ObjectClass) gobject.readGClass();
-        Type valueType = readPropertyValueType(gclass, propertyName);
-        try (var arena = Arena.ofConfined()) {
-            var gvalue = new Value(arena).init(valueType);
-            gobject.getProperty(propertyName, gvalue);
-            Object result = ValueUtil.valueToObject(gvalue);
-            gvalue.unset();
-            return result;
+        return getProperties(gobject, propertyName)[0];
+    }
+
+    /**
+     * Set multiple properties of an object at once, with
+     * {@code g_object_setv}. Property change notifications are emitted after
+     * all properties have been set.
+     *
+     * @param  gobject the object instance
+     * @param  names   the names of the properties to set
+     * @param  values  the new property values, in the same order as the names
+     * @throws IllegalArgumentException if a property with one of the names is
+     *                                  not found for the object, or when the
+     *                                  arrays have a different length
+     */
+    public static void setProperties(GObject gobject, String[] names,
+                                     Object[] values) {
+        int n = names.length;
+        if (values.length != n)
+            throw new IllegalArgumentException("Expected %d property values, got %d"
+                    .formatted(n, values.length));
+
+        long valueSize = Value.getMemoryLayout().byteSize();
+        try (var arena = ScratchArena.open()) {
+            MemorySegment nameArray = arena.allocate(ValueLayout.ADDRESS, n);
+            MemorySegment valueArray = arena.allocate(Value.getMemoryLayout(), n);
+            int initialized = 0;
+            try {
+                for (int i = 0; i < n; i++) {
+                    var info = getPropertyInfo(gobject, names[i]);
+                    nameArray.setAtIndex(ValueLayout.ADDRESS, i, info.name());
+                    var gvalue = new Value(valueArray.asSlice(i * valueSize, valueSize))
+                            .init(info.valueType());
+                    initialized++;
+                    ValueUtil.objectToValue(values[i], gvalue);
+                }
+                g_object_setv.invokeExact(gobject.handle(), n, nameArray, valueArray);
+            } catch (IllegalArgumentException e) {
+                throw e;
+            } catch (Throwable _err) {
+                throw new AssertionError("Unexpected exception occurred: ", _err);
+            } finally {
+                unset(valueArray, initialized);
+            }
+        }
+    }
+
+    /**
+     * Get multiple properties of an object at once, with
+     * {@code g_object_getv}.
+     *
+     * @param  gobject the object instance
+     * @param  names   the names of the properties to get
+     * @return the property values, in the same order as the names
+     * @throws IllegalArgumentException if a property with one of the names is
+     *                                  not found for the object
+     */
+    public static Object[] getProperties(GObject gobject, String... names) {
+        int n = names.length;
+        Object[] result = new Object[n];
+
+        long valueSize = Value.getMemoryLayout().byteSize();
+        try (var arena = ScratchArena.open()) {
+            MemorySegment nameArray = arena.allocate(ValueLayout.ADDRESS, n);
+            MemorySegment valueArray = arena.allocate(Value.getMemoryLayout(), n);
+            int initialized = 0;
+            try {
+                for (int i = 0; i < n; i++) {
+                    var info = getPropertyInfo(gobject, names[i]);
+                    nameArray.setAtIndex(ValueLayout.ADDRESS, i, info.name());
+                    new Value(valueArray.asSlice(i * valueSize, valueSize))
+                            .init(info.valueType());
+                    initialized++;
+                }
+                g_object_getv.invokeExact(gobject.handle(), n, nameArray, valueArray);
+                for (int i = 0; i < n; i++)
+                    result[i] = ValueUtil.valueToObject(
+                            new Value(valueArray.asSlice(i * valueSize, valueSize)));
+            } catch (IllegalArgumentException e) {
+                throw e;
+            } catch (Throwable _err) {
+                throw new AssertionError("Unexpected exception occurred: ", _err);
+            } finally {
+                unset(valueArray, initialized);
+            }
         }
+        return result;
+    }
+
+    // Unset the first n GValues in the array
+    private static void unset(MemorySegment valueArray, int n) {
+        long valueSize = Value.getMemoryLayout().byteSize();
+        for (int i = 0; i < n; i++)
+            new Value(valueArray.asSlice(i * valueSize, valueSize)).unset();
     }
 
     /**
@@ -163,7 +299,8 @@ public class Properties {
 
                     // Read the objectType of GValue that is expected for this
                     // property
-                    Type valueType = readPropertyValueType(objectClass, name);
+                    Type valueType = getPropertyInfo(objectType.getValue(),
+                            name, () -> objectClass).valueType();
 
                     // Create a GValue and write the object to it
                     Value gvalue = new Value(arena).init(valueType);
@@ -444,6 +581,16 @@ public class Properties {
                 getters[idx] = method;
         }
 
+        // Compile the getter and setter methods to method handles
+        Accessor[] getterHandles = new Accessor[getters.length];
+        Accessor[] setterHandles = new Accessor[setters.length];
+        for (int i = 1; i < getters.length; i++) {
+            if (getters[i] != null)
+                getterHandles[i] = Accessor.getter(getters[i]);
+            if (setters[i] != null)
+                setterHandles[i] = Accessor.setter(setters[i]);
+        }
+
         // Create GParamSpec array. Index 0 is reserved.
         final ParamSpec[] pspecs = new ParamSpec[propertySpecs.size()];
         for (int i = 1; i < propertySpecs.size(); i++) {
@@ -471,30 +618,25 @@ public class Properties {
                     return;
                 }
 
-                // Invoke the getter method
-                Object output;
+                // Invoke the getter method and write the result to the GValue
                 try {
-                    output = getters[propertyId].invoke(object);
-                } catch (InvocationTargetException e) {
+                    if (! getterHandles[propertyId].get(object, value))
+                        GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                                "%s.getProperty('%s'): cannot convert the value\n",
+                                cls.getName(), propertyNames.get(propertyId));
+                } catch (IllegalAccessException e) {
+                    // Tried to call a private method
+                    GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                            "IllegalAccessException calling %s.getProperty('%s')\n",
+                            cls.getName(), propertyNames.get(propertyId));
+                } catch (Throwable t) {
                     // Log exceptions thrown by the getter method
-                    Throwable t = e.getTargetException();
                     GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
                             "%s.getProperty('%s'): %s\n",
                             cls.getName(),
                             propertyNames.get(propertyId),
                             t.toString());
-                    return;
-                } catch (IllegalAccessException e) {
-                    // Tried to call a private method
-                    GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
-                            "IllegalAccessException calling %s.getProperty('%s')\n",
-                            cls.getName(), propertyNames.get(propertyId));
-                    return;
                 }
-
-                // Convert return value to GValue
-                if (output != null)
-                    ValueUtil.objectToValue(output, value);
             }, Arena.global());
 
             // Override the set_property virtual method
@@ -516,27 +658,21 @@ public class Properties {
                     return;
                 }
 
-                // Convert argument to GValue
-                Object input = ValueUtil.valueToObject(value);
-
-                // Invoke the setter method
-                if (input != null) {
-                    try {
-                        setters[propertyId].invoke(object, input);
-                    } catch (InvocationTargetException e) {
-                        // Log exceptions thrown by the setter method
-                        Throwable t = e.getTargetException();
-                        GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
-                                "%s.setProperty('%s'): %s\n",
-                                cls.getName(),
-                                propertyNames.get(propertyId),
-                                t.toString());
-                    } catch (IllegalAccessException e) {
-                        // Tried to call a private method
-                        GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
-                                "IllegalAccessException calling %s.setProperty('%s')\n",
-                                cls.getName(), propertyNames.get(propertyId));
-                    }
+                // Read the GValue and invoke the setter method
+                try {
+                    setterHandles[propertyId].set(object, value);
+                } catch (IllegalAccessException e) {
+                    // Tried to call a private method
+                    GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                            "IllegalAccessException calling %s.setProperty('%s')\n",
+                            cls.getName(), propertyNames.get(propertyId));
+                } catch (Throwable t) {
+                    // Log exceptions thrown by the setter method
+                    GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                            "%s.setProperty('%s'): %s\n",
+                            cls.getName(),
+                            propertyNames.get(propertyId),
+                            t.toString());
                 }
             }, Arena.global());
 
@@ -545,6 +681,201 @@ public class Properties {
         };
     }
 
+    /**
+     * Install properties that were declared at compile time, and override
+     * the {@code GObject.getProperty} and {@code setProperty} methods to call
+     * the provided getter and setter. This is called from the class
+     * initializer of a generated {@link RegistrationDescriptor}.
+     *
+     * @param gclass    the typeclass that is being initialized
+     * @param className name of the class that declares the properties, used
+     *                  in log messages
+     * @param names     the property names. Index 0 is reserved.
+     * @param pspecs    the property specifications. Index 0 is reserved.
+     * @param getter    reads a property with the given id into a GValue
+     * @param setter    writes a GValue to a property with the given id
+     */
+    public static void installProperties(GObject.ObjectClass gclass,
+                                         String className,
+                                         String[] names,
+                                         ParamSpec[] pspecs,
+                                         PropertyGetter getter,
+                                         PropertySetter setter) {
+        overrideGetProperty(gclass, (object, propertyId, value, _) -> {
+            if (propertyId < 1 || propertyId >= names.length) {
+                GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                        "Invalid property id %d in %s.getProperty\n",
+                        propertyId, className);
+                return;
+            }
+            try {
+                if (! getter.get(object, propertyId, value))
+                    GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                            "%s.getProperty('%s'): cannot convert the value\n",
+                            className, names[propertyId]);
+            } catch (Throwable t) {
+                GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                        "%s.getProperty('%s'): %s\n",
+                        className, names[propertyId], t.toString());
+            }
+        }, Arena.global());
+
+        overrideSetProperty(gclass, (object, propertyId, value, _) -> {
+            if (propertyId < 1 || propertyId >= names.length) {
+                GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                        "Invalid property id %d in %s.setProperty\n",
+                        propertyId, className);
+                return;
+            }
+            try {
+                setter.set(object, propertyId, value);
+            } catch (Throwable t) {
+                GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                        "%s.setProperty('%s'): %s\n",
+                        className, names[propertyId], t.toString());
+            }
+        }, Arena.global());
+
+        gclass.installProperties(pspecs);
+    }
+
+    /**
+     * Reads the value of a property into a GValue.
+     */
+    @FunctionalInterface
+    public interface PropertyGetter {
+        /**
+         * Read the value of a property into a GValue.
+         *
+         * @param  object     the object that has the property
+         * @param  propertyId the id of the property
+         * @param  value      the GValue to write the property value to
+         * @return whether the value could be converted to the GValue
+         */
+        boolean get(GObject object, int propertyId, Value value);
+    }
+
+    /**
+     * Writes the value in a GValue to a property.
+     */
+    @FunctionalInterface
+    public interface PropertySetter {
+        /**
+         * Write the value in a GValue to a property.
+         *
+         * @param object     the object that has the property
+         * @param propertyId the id of the property
+         * @param value      the GValue that contains the new property value
+         */
+        void set(GObject object, int propertyId, Value value);
+    }
+
+    /*
+     * A compiled property getter or setter. Integer, floating-point and
+     * boolean properties are transferred between the GValue and the method
+     * without boxing; other types are converted with ValueUtil. When no
+     * method handle can be created, the method is invoked with reflection.
+     */
+    private record Accessor(int kind, MethodHandle handle, Method method) {
+
+        private static final int REFLECTION = 0;
+        private static final int LONG = 1;
+        private static final int DOUBLE = 2;
+        private static final int BOOLEAN = 3;
+        private static final int OBJECT = 4;
+
+        // Get the kind of transfer for the Java type of the property
+        private static int kindOf(Class<?> type) {
+            if (type == boolean.class)
+                return BOOLEAN;
+            if (type == double.class || type == float.class)
+                return DOUBLE;
+            if (type.isPrimitive())
+                return LONG;
+            return OBJECT;
+        }
+
+        private static Class<?> transferType(int kind) {
+            return switch (kind) {
+                case LONG -> long.class;
+                case DOUBLE -> double.class;
+                case BOOLEAN -> boolean.class;
+                default -> Object.class;
+            };
+        }
+
+        // Adapt a getter to (GObject) -> long/double/boolean/Object
+        static Accessor getter(Method method) {
+            int kind = kindOf(method.getReturnType());
+            try {
+                // Make sure the class is readable from this module
+                Properties.class.getModule().addReads(
+                        method.getDeclaringClass().getModule());
+                MethodHandle handle = MethodHandles.explicitCastArguments(
+                        MethodHandles.lookup().unreflect(method),
+                        MethodType.methodType(transferType(kind), GObject.class));
+                return new Accessor(kind, handle, method);
+            } catch (IllegalAccessException | WrongMethodTypeException e) {
+                return new Accessor(REFLECTION, null, method);
+            }
+        }
+
+        // Adapt a setter to (GObject, long/double/boolean/Object) -> void
+        static Accessor setter(Method method) {
+            int kind = kindOf(method.getParameterTypes()[0]);
+            try {
+                // Make sure the class is readable from this module
+                Properties.class.getModule().addReads(
+                        method.getDeclaringClass().getModule());
+                MethodHandle handle = MethodHandles.explicitCastArguments(
+                        MethodHandles.lookup().unreflect(method),
+                        MethodType.methodType(void.class, GObject.class, transferType(kind)));
+                return new Accessor(kind, handle, method);
+            } catch (IllegalAccessException | WrongMethodTypeException e) {
+                return new Accessor(REFLECTION, null, method);
+            }
+        }
+
+        // Invoke the getter and write the result to the GValue
+        boolean get(GObject object, Value value) throws Throwable {
+            return switch (kind) {
+                case LONG -> ValueUtil.longToValue(
+                        (long) handle.invokeExact(object), value);
+                case DOUBLE -> ValueUtil.doubleToValue(
+                        (double) handle.invokeExact(object), value);
+                case BOOLEAN -> ValueUtil.longToValue(
+                        (boolean) handle.invokeExact(object) ? 1 : 0, value);
+                case OBJECT -> {
+                    Object output = (Object) handle.invokeExact(object);
+                    yield output == null || ValueUtil.objectToValue(output, value);
+                }
+                default -> {
+                    Object output = method.invoke(object);
+                    yield output == null || ValueUtil.objectToValue(output, value);
+                }
+            };
+        }
+
+        // Read the GValue and invoke the setter
+        void set(GObject object, Value value) throws Throwable {
+            switch (kind) {
+                case LONG -> handle.invokeExact(object, ValueUtil.valueToLong(value));
+                case DOUBLE -> handle.invokeExact(object, ValueUtil.valueToDouble(value));
+                case BOOLEAN -> handle.invokeExact(object, ValueUtil.valueToLong(value) != 0);
+                case OBJECT -> {
+                    Object input = ValueUtil.valueToObject(value);
+                    if (input != null)
+                        handle.invokeExact(object, input);
+                }
+                default -> {
+                    Object input = ValueUtil.valueToObject(value);
+                    if (input != null)
+                        method.invoke(object, input);
+                }
+            }
+        }
+    }
+
     private static void overrideGetProperty(Proxy instance, GetPropertyCallback getProperty, Arena _arena) {
         GObject.ObjectClass.getMemoryLayout().varHandle(MemoryLayout.PathElement.groupElement("get_property"))
                 .set(instance.handle(), 0, (getProperty == null ? MemorySegment.NULL : getProperty.toCallback(_arena)));
@@ -563,10 +894,10 @@ public class Properties {
         void run(GObject object, int propertyId, Value value, ParamSpec pspec);
 
         default void upcall(MemorySegment object, int propertyId, MemorySegment value, MemorySegment pspec) {
-            run((GObject) InstanceCache.getForType(object, GObject::new, false),
+            run((GObject) InstanceCache.getForType(object, GObject.class, GObject::new, false),
                     propertyId,
                     MemorySegment.NULL.equals(value) ? null : new Value(value),
-                    (ParamSpec) InstanceCache.getForType(pspec, ParamSpec.ParamSpecImpl::new, false));
+                    (ParamSpec) InstanceCache.getForType(pspec, ParamSpec.class, ParamSpec.ParamSpecImpl::new, false));
         }
 
         default MemorySegment toCallback(Arena arena) {
@@ -585,10 +916,10 @@ public class Properties {
         void run(GObject object, int propertyId, Value value, ParamSpec pspec);
 
         default void upcall(MemorySegment object, int propertyId, MemorySegment value, MemorySegment pspec) {
-            run((GObject) InstanceCache.getForType(object, GObject::new, false),
+            run((GObject) InstanceCache.getForType(object, GObject.class, GObject::new, false),
                     propertyId,
                     MemorySegment.NULL.equals(value) ? null : new Value(value),
-                    (ParamSpec) InstanceCache.getForType(pspec, ParamSpec.ParamSpecImpl::new, false));
+                    (ParamSpec) InstanceCache.getForType(pspec, ParamSpec.class, ParamSpec.ParamSpecImpl::new, false));
         }
 
         default MemorySegment toCallback(Arena arena) {
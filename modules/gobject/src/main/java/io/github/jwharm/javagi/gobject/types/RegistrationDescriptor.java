@@ -0,0 +1,131 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2023 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.gobject.types;
+
+import org.gnome.glib.Type;
+import org.gnome.gobject.GObject;
+import org.gnome.gobject.TypeFlags;
+
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.util.Set;
+
+/**
+ * Registration metadata for a Java class that is registered as a new GType.
+ * <p>
+ * Descriptors are generated at compile time by the {@code gobject-processor}
+ * annotation processor, in a class named after the registered class with a
+ * {@code _Registration} suffix (for example {@code MyWidget_Registration},
+ * or {@code Outer_Inner_Registration} for a nested class). They contain the
+ * type name, memory layouts, property and signal specifications of the class,
+ * and call its constructor and initializers directly.
+ * <p>
+ * When {@link Types#register(Class)} finds a descriptor for a class, it uses
+ * the descriptor instead of scanning the class with reflection. Overridden
+ * virtual methods and implemented interfaces are still discovered with
+ * reflection.
+ *
+ * @param <T> the registered class
+ */
+public interface RegistrationDescriptor<T extends GObject> {
+
+    /**
+     * The suffix that is appended to the name of a registered class to get
+     * the name of its descriptor class
+     */
+    String SUFFIX = "_Registration";
+
+    /**
+     * Get the name of the new GType.
+     *
+     * @return the GType name
+     */
+    String typeName();
+
+    /**
+     * Get the GType of the parent class.
+     *
+     * @return the parent GType
+     */
+    Type parentType();
+
+    /**
+     * Get the memory layout of the typeclass.
+     *
+     * @return the class memory layout
+     */
+    MemoryLayout classLayout();
+
+    /**
+     * Get the memory layout of the typeinstance.
+     *
+     * @return the instance memory layout
+     */
+    MemoryLayout instanceLayout();
+
+    /**
+     * Create a Java instance for a native object, using the memory-address
+     * constructor of the class.
+     *
+     * @param  address the memory address of the native object
+     * @return the new Java instance
+     */
+    T newInstance(MemorySegment address);
+
+    /**
+     * Get the type flags for the class.
+     *
+     * @return the type flags
+     */
+    Set<TypeFlags> typeFlags();
+
+    /**
+     * Install the properties that are declared with {@code @Property}
+     * annotations.
+     *
+     * @param typeClass the typeclass that is being initialized
+     */
+    default void installProperties(GObject.ObjectClass typeClass) {
+    }
+
+    /**
+     * Install the signals that are declared with {@code @Signal} annotations.
+     *
+     * @param typeClass the typeclass that is being initialized
+     */
+    default void installSignals(GObject.ObjectClass typeClass) {
+    }
+
+    /**
+     * Run the {@code @ClassInit} method of the class.
+     *
+     * @param typeClass the typeclass that is being initialized
+     */
+    default void classInit(GObject.ObjectClass typeClass) {
+    }
+
+    /**
+     * Run the {@code @InstanceInit} method of the class.
+     *
+     * @param instance the instance that is being initialized
+     */
+    default void instanceInit(T instance) {
+    }
+}
@@ -19,18 +19,25 @@
 
 package io.github.jwharm.javagi.gobject.types;
 
-import io.github.jwharm.javagi.base.Out;
+import io.github.jwharm.javagi.base.FunctionPointer;
+import io.github.jwharm.javagi.base.IntOut;
 import io.github.jwharm.javagi.base.Proxy;
 import io.github.jwharm.javagi.base.ProxyInstance;
 import io.github.jwharm.javagi.gobject.ValueUtil;
 import io.github.jwharm.javagi.gobject.annotations.Signal;
+import io.github.jwharm.javagi.interop.Arenas;
+import io.github.jwharm.javagi.interop.ConcurrentLongMap;
 import io.github.jwharm.javagi.interop.Interop;
+import io.github.jwharm.javagi.interop.ScratchArena;
+import io.github.jwharm.javagi.interop.SharedUpcalls;
+import org.gnome.glib.GLib;
 import org.gnome.glib.Quark;
 import org.gnome.glib.Type;
 import org.gnome.gobject.*;
 
 import java.lang.foreign.Arena;
 import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
 import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
@@ -38,7 +45,9 @@ import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 /**
@@ -55,8 +64,8 @@ public class Signals {
     }
 
     /**
-     * The method handle for g_signal_connect_data is used by all generated
-     * signal-connection methods.
+     * The method handle for g_signal_connect_data is used by
+     * {@link #connect}.
      */
     public static final MethodHandle g_signal_connect_data =
             Interop.downcallHandle(
@@ -78,6 +87,33 @@ public class Signals {
                         ValueLayout.ADDRESS, ValueLayout.ADDRESS),
                 true);
 
+    private static final MethodHandle g_signal_emitv =
+            Interop.downcallHandle(
+                "g_signal_emitv",
+                FunctionDescriptor.ofVoid(
+                        ValueLayout.ADDRESS, ValueLayout.JAVA_INT,
+                        ValueLayout.JAVA_INT, ValueLayout.ADDRESS),
+                false);
+
+    // G_SIGNAL_TYPE_STATIC_SCOPE is a flag in the GTypes of signal parameters
+    private static final long STATIC_SCOPE = 1;
+
+    /*
+     * Resolved signal metadata: the instance type, signal id, detail quark,
+     * and the GTypes of the parameters and return value.
+     */
+    private record SignalInfo(Type instanceType,
+                              int signalId,
+                              int detail,
+                              Type[] paramTypes,
+                              Type returnType) {
+    }
+
+    // Resolved signals, keyed by the GType of the instance and the detailed
+    // signal name
+    private static final ConcurrentLongMap<Map<String, SignalInfo>> signalInfos
+            = new ConcurrentLongMap<>();
+
     private record SignalDeclaration(String signalName,
                                      Set<SignalFlags> signalFlags,
                                      Type returnType,
@@ -251,13 +287,152 @@ public class Signals {
     public static Object emit(GObject gobject,
                               String detailedSignal,
                               Object... params) {
-        Type gtype = Types.getGType(gobject.getClass());
+        SignalInfo info = getSignalInfo(gobject, detailedSignal);
+        int nParams = info.paramTypes().length;
+        if (params.length < nParams)
+            throw new IllegalArgumentException("Signal \"%s\" expects %d parameters, got %d"
+                    .formatted(detailedSignal, nParams, params.length));
+
+        try (var arena = ScratchArena.open()) {
+            MemorySegment values = allocateValues(arena, gobject, info);
+            try {
+                for (int i = 0; i < nParams; i++)
+                    ValueUtil.objectToValue(params[i], value(values, i + 1));
+                return emitv(arena, values, info);
+            } finally {
+                unset(values, nParams + 1);
+            }
+        }
+    }
+
+    /**
+     * Emits a signal without parameters from a GObject.
+     *
+     * @param  gobject        the object that emits the signal
+     * @param  detailedSignal a string of the form "signal-name::detail"
+     * @return the return value of the signal, or {@code null} if the signal
+     *         has no return value
+     * @throws IllegalArgumentException if a signal with this name is not found
+     *                                  for the object, or if it has parameters
+     */
+    public static Object emit(GObject gobject, String detailedSignal) {
+        SignalInfo info = getSignalInfo(gobject, detailedSignal);
+        checkParams(info, detailedSignal, 0);
+
+        try (var arena = ScratchArena.open()) {
+            MemorySegment values = allocateValues(arena, gobject, info);
+            try {
+                return emitv(arena, values, info);
+            } finally {
+                unset(values, 1);
+            }
+        }
+    }
+
+    /**
+     * Emits a signal with one integer, boolean, enum or flags parameter from
+     * a GObject. The parameter is not boxed.
+     *
+     * @param  gobject        the object that emits the signal
+     * @param  detailedSignal a string of the form "signal-name::detail"
+     * @param  param          the parameter to emit for this signal
+     * @return the return value of the signal, or {@code null} if the signal
+     *         has no return value
+     * @throws IllegalArgumentException if a signal with this name is not found
+     *                                  for the object, or if it does not have
+     *                                  exactly one numeric parameter
+     */
+    public static Object emit(GObject gobject, String detailedSignal, long param) {
+        SignalInfo info = getSignalInfo(gobject, detailedSignal);
+        checkParams(info, detailedSignal, 1);
+
+        try (var arena = ScratchArena.open()) {
+            MemorySegment values = allocateValues(arena, gobject, info);
+            try {
+                if (! ValueUtil.longToValue(param, value(values, 1)))
+                    throw invalidParam(info, detailedSignal);
+                return emitv(arena, values, info);
+            } finally {
+                unset(values, 2);
+            }
+        }
+    }
 
-        // Parse the detailed signal name into a signal id and detail quark
-        Out<Integer> signalId = new Out<>();
+    /**
+     * Emits a signal with one floating-point parameter from a GObject. The
+     * parameter is not boxed.
+     *
+     * @param  gobject        the object that emits the signal
+     * @param  detailedSignal a string of the form "signal-name::detail"
+     * @param  param          the parameter to emit for this signal
+     * @return the return value of the signal, or {@code null} if the signal
+     *         has no return value
+     * @throws IllegalArgumentException if a signal with this name is not found
+     *                                  for the object, or if it does not have
+     *                                  exactly one numeric parameter
+     */
+    public static Object emit(GObject gobject, String detailedSignal, double param) {
+        SignalInfo info = getSignalInfo(gobject, detailedSignal);
+        checkParams(info, detailedSignal, 1);
+
+        try (var arena = ScratchArena.open()) {
+            MemorySegment values = allocateValues(arena, gobject, info);
+            try {
+                if (! ValueUtil.doubleToValue(param, value(values, 1)))
+                    throw invalidParam(info, detailedSignal);
+                return emitv(arena, values, info);
+            } finally {
+                unset(values, 2);
+            }
+        }
+    }
+
+    /**
+     * Emits a signal with one boolean parameter from a GObject. The parameter
+     * is not boxed.
+     *
+     * @param  gobject        the object that emits the signal
+     * @param  detailedSignal a string of the form "signal-name::detail"
+     * @param  param          the parameter to emit for this signal
+     * @return the return value of the signal, or {@code null} if the signal
+     *         has no return value
+     * @throws IllegalArgumentException if a signal with this name is not found
+     *                                  for the object, or if it does not have
+     *                                  exactly one boolean parameter
+     */
+    public static Object emit(GObject gobject, String detailedSignal, boolean param) {
+        return emit(gobject, detailedSignal, param ? 1L : 0L);
+    }
+
+    /*
+     * Get the metadata of a signal. The signal name is parsed and the signal
+     * is queried only the first time.
+     */
+    private static SignalInfo getSignalInfo(GObject gobject,
+                                            String detailedSignal) {
+        long gtype = TypeCache.readGType(gobject.handle());
+        var signals = signalInfos.computeIfAbsent(gtype,
+                _ -> new ConcurrentHashMap<>());
+        var info = signals.get(detailedSignal);
+        if (info == null) {
+            info = querySignal(Type.of(gtype), detailedSignal, gobject);
+            var existing = signals.putIfAbsent(detailedSignal, info);
+            if (existing != null)
+                info = existing;
+        }
+        return info;
+    }
+
+    private static SignalInfo querySignal(Type gtype,
+                                          String detailedSignal,
+                                          GObject gobject) {
+        // Parse the detailed signal name into a signal id and detail quark.
+        // The result is cached, so force creation of the detail quark: an
+        // unknown detail would otherwise be cached as quark 0.
+        IntOut signalId = new IntOut();
         Quark detailQ = new Quark(0);
         boolean success = GObjects.signalParseName(
-                detailedSignal, gtype, signalId, detailQ, false);
+                detailedSignal, gtype, signalId, detailQ, true);
 
         if (! success)
             throw new IllegalArgumentException("Invalid signal \"%s\" for class %s"
@@ -266,48 +441,185 @@ public class Signals {
         try (var arena = Arena.ofConfined()) {
             // Query the parameter details of the signal
             SignalQuery query = new SignalQuery(arena);
-            GObjects.signalQuery(signalId.get(), query);
+            GObjects.signalQuery(signalId.getAsInt(), query);
 
-            // Create an array of Types for the parameters
-            int nParams = query.readNParams();
+            // Remove the G_SIGNAL_TYPE_STATIC_SCOPE flag from the types
             Type[] paramTypes = query.readParamTypes();
+            for (int i = 0; i < paramTypes.length; i++)
+                paramTypes[i] = Type.of(paramTypes[i].getValue() & ~STATIC_SCOPE);
+            Type returnType = Type.of(query.readReturnType().getValue() & ~STATIC_SCOPE);
 
-            // Allocate Values array for the instance parameter and other
-            // parameters
-            var values = new Value[nParams+1];
+            return new SignalInfo(gtype, signalId.getAsInt(), detailQ.getValue(),
+                    paramTypes, returnType);
+        }
+    }
 
-            // Allocation return value
-            var returnValue = new Value(arena);
-            Type returnType = query.readReturnType();
-            if (! Types.NONE.equals(returnType))
-                returnValue.init(returnType);
+    private static void checkParams(SignalInfo info,
+                                    String detailedSignal,
+                                    int nParams) {
+        if (info.paramTypes().length != nParams)
+            throw new IllegalArgumentException("Signal \"%s\" expects %d parameters, got %d"
+                    .formatted(detailedSignal, info.paramTypes().length, nParams));
+    }
 
-            // Set instance parameter
-            values[0] = new Value(arena).init(gtype);
-            values[0].setObject(gobject);
+    private static IllegalArgumentException invalidParam(SignalInfo info,
+                                                         String detailedSignal) {
+        return new IllegalArgumentException("Signal \"%s\" expects a parameter of type %s"
+                .formatted(detailedSignal,
+                        GObjects.typeName(info.paramTypes()[0])));
+    }
 
-            // Set other parameters
-            for (int i = 0; i < nParams; i++) {
-                values[i+1] = new Value(arena).init(paramTypes[i]);
-                ValueUtil.objectToValue(params[i], values[i+1]);
-            }
+    /*
+     * Allocate a contiguous GValue array for the instance and the parameters
+     * of a signal. The instance is set, and the parameter values are
+     * initialized to their types.
+     */
+    private static MemorySegment allocateValues(Arena arena,
+                                                GObject gobject,
+                                                SignalInfo info) {
+        Type[] paramTypes = info.paramTypes();
+        MemorySegment values = arena.allocate(Value.getMemoryLayout(),
+                paramTypes.length + 1);
+        value(values, 0).init(info.instanceType()).setObject(gobject);
+        for (int i = 0; i < paramTypes.length; i++)
+            value(values, i + 1).init(paramTypes[i]);
+        return values;
+    }
 
-            // Emit the signal
-            GObjects.signalEmitv(values, signalId.get(), detailQ, returnValue);
+    /*
+     * Emit the signal with the values and return the result (if any).
+     */
+    private static Object emitv(Arena arena,
+                                MemorySegment values,
+                                SignalInfo info) {
+        boolean hasResult = ! Types.NONE.equals(info.returnType());
+        var returnValue = new Value(arena);
+        if (hasResult)
+            returnValue.init(info.returnType());
+
+        try {
+            g_signal_emitv.invokeExact(values, info.signalId(), info.detail(),
+                    returnValue.handle());
+            return hasResult ? ValueUtil.valueToObject(returnValue) : null;
+        } catch (Throwable _err) {
+            throw new AssertionError("Unexpected exception occurred: ", _err);
+        } finally {
+            returnValue.unset();
+        }
+    }
+
+    private static Value value(MemorySegment values, int index) {
+        long size = Value.getMemoryLayout().byteSize();
+        return new Value(values.asSlice(index * size, size));
+    }
+
+    // Unset the first n GValues in the array
+    private static void unset(MemorySegment values, int n) {
+        for (int i = 0; i < n; i++)
+            value(values, i).unset();
+    }
 
-            // Return the result (if any)
-            Object result = Types.NONE.equals(returnType)
-                    ? null
-                    : ValueUtil.valueToObject(returnValue);
+    /**
+     * The id of a signal, that is looked up by name the first time it is
+     * used. Generated signal-emission methods keep one instance for every
+     * signal in a static field.
+     */
+    public static final class SignalId {
+        private final String name;
+
+        // 0 until the signal is looked up. Concurrent lookups set the same id.
+        private int id;
+
+        /**
+         * Create a SignalId for the signal with the provided name.
+         *
+         * @param name the name of the signal
+         */
+        public SignalId(String name) {
+            this.name = name;
+        }
 
-            // Cleanup the allocated values
-            for (Value value : values) {
-                if (value != null)
-                    value.unset();
+        /**
+         * Get the signal id. The first time, the signal is looked up in the
+         * GType of the provided instance.
+         *
+         * @param  instance the object that emits the signal
+         * @return the signal id
+         * @throws IllegalArgumentException if the signal is not found for the
+         *                                  object
+         */
+        public int get(MemorySegment instance) {
+            int id = this.id;
+            if (id == 0) {
+                Type gtype = Type.of(TypeCache.readGType(instance));
+                id = GObjects.signalLookup(name, gtype);
+                if (id == 0)
+                    throw new IllegalArgumentException("Invalid signal \"%s\" for type %s"
+                            .formatted(name, GObjects.typeName(gtype)));
+                this.id = id;
             }
-            returnValue.unset();
+            return id;
+        }
+    }
 
-            return result;
+    /**
+     * Get the quark for a signal detail.
+     *
+     * @param  detail the signal detail, or {@code null}
+     * @return the quark for the signal detail, or 0 if the detail is
+     *         {@code null} or blank
+     */
+    public static int detailQuark(String detail) {
+        if (detail == null || detail.isBlank())
+            return 0;
+        return GLib.quarkFromString(detail).getValue();
+    }
+
+    /**
+     * Connect a signal handler to a signal of an object. This is used by all
+     * generated signal-connection methods.
+     * <p>
+     * When {@link SharedUpcalls#ENABLED shared upcall stubs} are enabled and
+     * the handler supports them, the handler is registered in the
+     * {@link SharedUpcalls} handle table and connected with the shared
+     * upcall stub of its type. Otherwise, a new upcall stub is created for
+     * the handler, in an arena that is closed when the handler is
+     * disconnected.
+     *
+     * @param  instance       the object that emits the signal
+     * @param  detailedSignal a string of the form "signal-name::detail", in
+     *                        native memory
+     * @param  handler        the signal handler
+     * @param  connectFlags   the {@link ConnectFlags} value
+     * @return the handler id
+     */
+    public static long connect(MemorySegment instance,
+                               MemorySegment detailedSignal,
+                               FunctionPointer handler,
+                               int connectFlags) {
+        MemorySegment sharedCallback = SharedUpcalls.ENABLED
+                ? handler.toSharedCallback()
+                : null;
+        try {
+            if (sharedCallback != null)
+                return (long) g_signal_connect_data.invokeExact(
+                        instance,
+                        detailedSignal,
+                        sharedCallback,
+                        SharedUpcalls.register(handler),
+                        SharedUpcalls.REMOVE_CB_SYM,
+                        connectFlags);
+
+            var callbackArena = Arena.ofShared();
+            return (long) g_signal_connect_data.invokeExact(
+                    instance,
+                    detailedSignal,
+                    handler.toCallback(callbackArena),
+                    Arenas.cacheArena(callbackArena),
+                    Arenas.CLOSE_CB_SYM,
+                    connectFlags);
+        } catch (Throwable _err) {
+            throw new AssertionError(_err);
         }
     }
 
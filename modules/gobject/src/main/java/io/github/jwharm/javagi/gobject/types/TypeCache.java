@@ -20,15 +20,15 @@
 package io.github.jwharm.javagi.gobject.types;
 
 import java.lang.foreign.MemorySegment;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.VarHandle;
 import java.util.function.Function;
 
 import org.gnome.glib.Type;
 import org.gnome.gobject.GObjects;
-import org.gnome.gobject.TypeInstance;
 
 import io.github.jwharm.javagi.base.Proxy;
+import io.github.jwharm.javagi.interop.ConcurrentLongMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -41,14 +41,29 @@ import static io.github.jwharm.javagi.gobject.types.Types.IS_FUNDAMENTAL;
  */
 public class TypeCache {
     
-    private final static Map<Type, Function<MemorySegment, ? extends Proxy>> typeRegister
-            = new ConcurrentHashMap<>();
+    // Keyed by the GType value
+    private final static ConcurrentLongMap<Function<MemorySegment, ? extends Proxy>> typeRegister
+            = new ConcurrentLongMap<>();
+
+    // Read GTypeInstance.g_class and GTypeClass.g_type (both at offset 0)
+    private final static VarHandle G_CLASS = ValueLayout.ADDRESS.varHandle();
+    private final static VarHandle G_TYPE = ValueLayout.JAVA_LONG.varHandle();
+
+    /*
+     * The Java class (or a supertype) of the instances that the registered
+     * constructor creates, keyed by the GType value. It is recorded at
+     * registration, or it is the declared class of a fallback constructor.
+     * It is never derived from the constructor function, because that would
+     * require creating a throwaway instance.
+     */
+    private final static ConcurrentLongMap<Class<?>> instanceClasses
+            = new ConcurrentLongMap<>();
 
     /**
      * Get the constructor from the type registry for the native object
      * instance at the given memory address. The applicable constructor is
      * determined based on the GType of the native object (as it was registered
-     * using {@link #register(Type, Function)}).
+     * using {@link #register(Type, Class, Function)}).
      *
      * @param address  address of TypeInstance object to obtain the type from
      * @param fallback if none was found, this constructor will be registered
@@ -58,13 +73,55 @@ public class TypeCache {
      */
     public static Function<MemorySegment, ? extends Proxy> getConstructor(MemorySegment address,
                                                                           Function<MemorySegment, ? extends Proxy> fallback) {
+        return getConstructor(address, getInstanceClass(fallback), fallback);
+    }
+
+    /**
+     * Get the constructor from the type registry for the native object
+     * instance at the given memory address. The applicable constructor is
+     * determined based on the GType of the native object (as it was registered
+     * using {@link #register(Type, Class, Function)}).
+     *
+     * @param address  address of TypeInstance object to obtain the type from
+     * @param cls      the declared Java type of the result. A constructor
+     *                 that is registered for a parent type or interface, is
+     *                 only returned when it creates instances of this class.
+     * @param fallback if none was found, this constructor will be registered
+     *                 for the type, and returned
+     * @return         the constructor, or {@code null} if address is
+     *                 {@code null} or a null-pointer
+     */
+    public static Function<MemorySegment, ? extends Proxy> getConstructor(MemorySegment address,
+                                                                          @Nullable Class<?> cls,
+                                                                          Function<MemorySegment, ? extends Proxy> fallback) {
         // Null check on the memory address
         if (address == null || address.equals(MemorySegment.NULL)) return null;
 
         // Read the gtype from memory
-        Type type = new TypeInstance(address).readGClass().readGType();
-        
-        return getConstructor(type, fallback);
+        long gtype = readGType(address);
+        if (gtype == 0) return fallback;
+
+        // Fast path: the type is already registered
+        Function<MemorySegment, ? extends Proxy> ctor = typeRegister.get(gtype);
+        if (ctor != null)
+            return ctor;
+
+        return getConstructor(Type.of(gtype), cls, fallback);
+    }
+
+    /*
+     * Read the GType of a TypeInstance directly from native memory, without
+     * creating TypeInstance and TypeClass proxy objects. Returns 0 when the
+     * instance has no class pointer.
+     */
+    static long readGType(MemorySegment address) {
+        var instance = address.reinterpret(ValueLayout.ADDRESS.byteSize());
+        var gclass = (MemorySegment) G_CLASS.get(instance, 0L);
+        if (MemorySegment.NULL.equals(gclass))
+            return 0;
+
+        var typeClass = gclass.reinterpret(ValueLayout.JAVA_LONG.byteSize());
+        return (long) G_TYPE.get(typeClass, 0L);
     }
     
     /**
@@ -84,69 +141,125 @@ public class TypeCache {
     public static Function<MemorySegment, ? extends Proxy> getConstructor(
             @NotNull Type type,
             @Nullable Function<MemorySegment, ? extends Proxy> fallback) {
+        return getConstructor(type, getInstanceClass(fallback), fallback);
+    }
+
+    /**
+     * Get the constructor from the type registry for the provided GType.
+     * If it isn't found, we try to find a constructor for the parent type and
+     * the implemented interfaces that creates instances of the declared
+     * class. If that works, it is registered as the constructor for the GType
+     * and returned. Otherwise, the provided fallback constructor is
+     * registered and returned.
+     *
+     * @param type     the GType for which the constructor was registered
+     * @param cls      the declared Java type of the result
+     * @param fallback if none was found, this constructor will be registered
+     *                 for the type, and returned
+     * @return         the constructor, or {@code null} if address is
+     *                 {@code null} or a null-pointer
+     */
+    public static Function<MemorySegment, ? extends Proxy> getConstructor(
+            @NotNull Type type,
+            @Nullable Class<?> cls,
+            @Nullable Function<MemorySegment, ? extends Proxy> fallback) {
         // Find the constructor in the typeRegister and return it
-        Function<MemorySegment, ? extends Proxy> ctor = typeRegister.get(type);
+        Function<MemorySegment, ? extends Proxy> ctor = typeRegister.get(type.getValue());
         if (ctor != null)
             return ctor;
 
-        // Get the class of the fallback constructor. Whatever constructor we
-        // return, must produce instances derived from this class.
-        var cls = fallback == null ? null : fallback.apply(null).getClass();
+        // When the declared class is unknown, the constructors of other types
+        // can't be checked, so the fallback constructor is used
+        if (cls == null && fallback != null) {
+            register(type, null, fallback);
+            return fallback;
+        }
 
         // Check parent type, unless it is a fundamental type (like GObject),
         // which would be the most generic and useless type we can use. So in
         // that case we first try all other available options.
         var parent = GObjects.typeParent(type);
         if (!IS_FUNDAMENTAL(parent)) {
-            var result = tryConstruct(cls, parent);
+            var result = tryConstruct(cls, parent, type);
             if (result != null)
                 return result;
         }
 
         // Check implemented interfaces
         for (var iface : GObjects.typeInterfaces(type)) {
-            var result = tryConstruct(cls, iface);
+            var result = tryConstruct(cls, iface, type);
             if (result != null)
                 return result;
         }
 
         // Register the fallback constructor for this type
         if (fallback != null) {
-            typeRegister.put(type, fallback);
+            register(type, cls, fallback);
             return fallback;
         }
 
         // No fallback was provided, return parent (fundamental type)
-        return tryConstruct(null, parent);
+        return tryConstruct(null, parent, type);
     }
 
-    // Register and return the constructor registered for {@code type}, if it
-    // produces an instance of {@code base}.
+    // Return the constructor registered for {@code type}, if it produces an
+    // instance of {@code base}, and register it for {@code target} too.
     private static Function<MemorySegment, ? extends Proxy>
-    tryConstruct(Class<?> base, Type type) {
-        var ctor = typeRegister.get(type);
+    tryConstruct(Class<?> base, Type type, Type target) {
+        var ctor = typeRegister.get(type.getValue());
         if (base == null)
             return ctor;
 
-        if (ctor != null) {
-            if (base.isAssignableFrom(ctor.apply(null).getClass())) {
-                typeRegister.put(type, ctor);
-                return ctor;
-            }
+        // When the class of the registered constructor is unknown, it can't
+        // be used for other types
+        var cls = instanceClasses.get(type.getValue());
+        if (ctor != null && cls != null && base.isAssignableFrom(cls)) {
+            register(target, cls, ctor);
+            return ctor;
         }
         return null;
     }
 
+    // Get the class of the instances that the constructor creates, if known
+    private static Class<?> getInstanceClass(Function<MemorySegment, ? extends Proxy> ctor) {
+        return ctor instanceof AddressConstructor<?> addressConstructor
+                ? addressConstructor.type()
+                : null;
+    }
+
+    /**
+     * Register the provided constructor function for the provided type. When
+     * the constructor was not created with {@link Types#getAddressConstructor},
+     * the class of the instances that it creates is unknown, and it will not
+     * be used for derived types. Use {@link #register(Type, Class, Function)}
+     * for that.
+     *
+     * @param type Type to use as key in the type register
+     * @param ctor Constructor function for this type
+     */
+    public static void register(Type type,
+                                Function<MemorySegment, ? extends Proxy> ctor) {
+        register(type, getInstanceClass(ctor), ctor);
+    }
+
     /**
-     * Register the provided constructor function for the provided type
+     * Register the provided constructor function for the provided type, and
+     * the Java class of the instances that the constructor creates.
      *
      * @param type Type to use as key in the type register
+     * @param cls  Java class of the instances that the constructor creates,
+     *             or {@code null} if unknown
      * @param ctor Constructor function for this type
      */
     public static void register(Type type,
+                                @Nullable Class<?> cls,
                                 Function<MemorySegment, ? extends Proxy> ctor) {
         if (type != null) {
-            typeRegister.put(type, ctor);
+            if (cls == null)
+                instanceClasses.remove(type.getValue());
+            else
+                instanceClasses.put(type.getValue(), cls);
+            typeRegister.put(type.getValue(), ctor);
         }
     }
 }
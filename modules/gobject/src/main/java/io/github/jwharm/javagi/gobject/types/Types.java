@@ -31,6 +31,10 @@ import org.gnome.gobject.*;
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.MemoryLayout;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
 import java.lang.reflect.*;
 import java.util.EnumSet;
 import java.util.Set;
@@ -48,6 +52,38 @@ import static org.gnome.gobject.GObjects.typeTestFlags;
 @SuppressWarnings("unused")
 public class Types {
 
+    /*
+     * Per-class caches of the reflective lookups in this class, so repeated
+     * calls don't need to scan the declared methods and classes again.
+     */
+    private static final ClassValue<GTypeReader> GTYPES = new ClassValue<>() {
+        @Override
+        protected GTypeReader computeValue(Class<?> cls) {
+            return new GTypeReader(cls);
+        }
+    };
+
+    private static final ClassValue<MemoryLayout> LAYOUTS = new ClassValue<>() {
+        @Override
+        protected MemoryLayout computeValue(Class<?> cls) {
+            return findLayout(cls);
+        }
+    };
+
+    private static final ClassValue<Class<?>> TYPE_CLASSES = new ClassValue<>() {
+        @Override
+        protected Class<?> computeValue(Class<?> cls) {
+            return findTypeClass(cls);
+        }
+    };
+
+    private static final ClassValue<Class<?>> TYPE_INTERFACES = new ClassValue<>() {
+        @Override
+        protected Class<?> computeValue(Class<?> cls) {
+            return findTypeInterface(cls);
+        }
+    };
+
     // GLib fundamental types, adapted from <gobject/gtype.h>
 
     private static final long FUNDAMENTAL_SHIFT = 2;
@@ -62,18 +98,18 @@ public class Types {
      * An invalid {@code GType} used as error return value in some functions
      * which return a {@code GType}.
      */
-    public static final Type INVALID = new Type(0L /* << FUNDAMENTAL_SHIFT */);
+    public static final Type INVALID = Type.of(0L /* << FUNDAMENTAL_SHIFT */);
 
     /**
      * A fundamental type which is used as a replacement for the C
      * void return type.
      */
-    public static final Type NONE = new Type(1L << FUNDAMENTAL_SHIFT);
+    public static final Type NONE = Type.of(1L << FUNDAMENTAL_SHIFT);
 
     /**
      * The fundamental type from which all interfaces are derived.
      */
-    public static final Type INTERFACE = new Type(2L << FUNDAMENTAL_SHIFT);
+    public static final Type INTERFACE = Type.of(2L << FUNDAMENTAL_SHIFT);
 
     /**
      * The fundamental type corresponding to {@code gchar}.
@@ -81,93 +117,93 @@ public class Types {
      * The type designated by {@code CHAR} is unconditionally an 8-bit signed
      * integer. This may or may not be the same type a the C type "gchar".
      */
-    public static final Type CHAR = new Type(3L << FUNDAMENTAL_SHIFT);
+    public static final Type CHAR = Type.of(3L << FUNDAMENTAL_SHIFT);
 
     /**
      * The fundamental type corresponding to {@code guchar}.
      */
-    public static final Type UCHAR = new Type(4L << FUNDAMENTAL_SHIFT);
+    public static final Type UCHAR = Type.of(4L << FUNDAMENTAL_SHIFT);
 
     /**
      * The fundamental type corresponding to {@code gboolean}.
      */
-    public static final Type BOOLEAN = new Type(5L << FUNDAMENTAL_SHIFT);
+    public static final Type BOOLEAN = Type.of(5L << FUNDAMENTAL_SHIFT);
 
     /**
      * The fundamental type corresponding to {@code gint}.
      */
-    public static final Type INT = new Type(6L << FUNDAMENTAL_SHIFT);
+    public static final Type INT = Type.of(6L << FUNDAMENTAL_SHIFT);
 
     /**
      * The fundamental type corresponding to {@code guint}.
      */
-    public static final Type UINT = new Type(7L << FUNDAMENTAL_SHIFT);
+    public static final Type UINT = Type.of(7L << FUNDAMENTAL_SHIFT);
 
     /**
      * The fundamental type corresponding to {@code glong}.
      */
-    public static final Type LONG = new Type(8L << FUNDAMENTAL_SHIFT);
+    public static final Type LONG = Type.of(8L << FUNDAMENTAL_SHIFT);
 
     /**
      * The fundamental type corresponding to {@code gulong}.
      */
-    public static final Type ULONG = new Type(9L << FUNDAMENTAL_SHIFT);
+    public static final Type ULONG = Type.of(9L << FUNDAMENTAL_SHIFT);
 
     /**
      * The fundamental type corresponding to {@code gint64}.
      */
-    public static final Type INT64 = new Type(10L << FUNDAMENTAL_SHIFT);
+    public static final Type INT64 = Type.of(10L << FUNDAMENTAL_SHIFT);
 
     /**
      * The fundamental type corresponding to {@code guint64}.
      */
-    public static final Type UINT64 = new Type(11L << FUNDAMENTAL_SHIFT);
+    public static final Type UINT64 = Type.of(11L << FUNDAMENTAL_SHIFT);
 
     /**
      * The fundamental type from which all enumeration types are derived.
      */
-    public static final Type ENUM = new Type(12L << FUNDAMENTAL_SHIFT);
+    public static final Type ENUM = Type.of(12L << FUNDAMENTAL_SHIFT);
 
     /**
      * The fundamental type from which all flags types are derived.
      */
-    public static final Type FLAGS = new Type(13L << FUNDAMENTAL_SHIFT);
+    public static final Type FLAGS = Type.of(13L << FUNDAMENTAL_SHIFT);
 
     /**
      * The fundamental type corresponding to {@code gfloat}.
      */
-    public static final Type FLOAT = new Type(14L << FUNDAMENTAL_SHIFT);
+    public static final Type FLOAT = Type.of(14L << FUNDAMENTAL_SHIFT);
 
     /**
      * The fundamental type corresponding to {@code gdouble}.
      */
-    public static final Type DOUBLE = new Type(15L << FUNDAMENTAL_SHIFT);
+    public static final Type DOUBLE = Type.of(15L << FUNDAMENTAL_SHIFT);
 
     /**
      * The fundamental type corresponding to nul-terminated C strings.
      */
-    public static final Type STRING = new Type(16L << FUNDAMENTAL_SHIFT);
+    public static final Type STRING = Type.of(16L << FUNDAMENTAL_SHIFT);
 
     /**
      * The fundamental type corresponding to {@code gpointer}.
      */
-    public static final Type POINTER = new Type(17L << FUNDAMENTAL_SHIFT);
+    public static final Type POINTER = Type.of(17L << FUNDAMENTAL_SHIFT);
 
     /**
      * The fundamental type from which all boxed types are derived.
      */
-    public static final Type BOXED = new Type(18L << FUNDAMENTAL_SHIFT);
+    public static final Type BOXED = Type.of(18L << FUNDAMENTAL_SHIFT);
 
     /**
      * The fundamental type from which all {@code GParamSpec} types are
      * derived.
      */
-    public static final Type PARAM = new Type(19L << FUNDAMENTAL_SHIFT);
+    public static final Type PARAM = Type.of(19L << FUNDAMENTAL_SHIFT);
 
     /**
      * The fundamental type for {@code GObject}.
      */
-    public static final Type OBJECT = new Type(20L << FUNDAMENTAL_SHIFT);
+    public static final Type OBJECT = Type.of(20L << FUNDAMENTAL_SHIFT);
 
     /**
      * The fundamental type corresponding to {@code G_TYPE_VARIANT}.
@@ -185,7 +221,7 @@ public class Types {
      *
      * @since 2.26
      */
-    public static final Type VARIANT = new Type(21L << FUNDAMENTAL_SHIFT);
+    public static final Type VARIANT = Type.of(21L << FUNDAMENTAL_SHIFT);
 
     // GLib boxed types, adapted from <gobject/glib-types.h>
 
@@ -465,7 +501,17 @@ public class Types {
      * @return {@code true} if {@code type} is fundamental
      */
     public static boolean IS_FUNDAMENTAL(Type type) {
-        return type.getValue() <= FUNDAMENTAL_MAX;
+        return IS_FUNDAMENTAL(type.getValue());
+    }
+
+    /**
+     * Checks if {@code type} is a fundamental type.
+     *
+     * @param  type a GType value
+     * @return {@code true} if {@code type} is fundamental
+     */
+    public static boolean IS_FUNDAMENTAL(long type) {
+        return type <= FUNDAMENTAL_MAX;
     }
 
     /**
@@ -477,7 +523,19 @@ public class Types {
      * @return {@code true} if {@code type} is derived
      */
     public static boolean IS_DERIVED(Type type) {
-        return type.getValue() > FUNDAMENTAL_MAX;
+        return IS_DERIVED(type.getValue());
+    }
+
+    /**
+     * Checks if {@code type} is derived (or in object-oriented terminology:
+     * inherited) from another type (this holds true for all non-fundamental
+     * types).
+     *
+     * @param  type a GType value
+     * @return {@code true} if {@code type} is derived
+     */
+    public static boolean IS_DERIVED(long type) {
+        return type > FUNDAMENTAL_MAX;
     }
 
     /**
@@ -706,17 +764,20 @@ public class Types {
     @SuppressWarnings("unchecked")
     public static <T extends TypeInstance, TC extends TypeClass>
     Class<TC> getTypeClass(Class<T> cls) {
+        return (Class<TC>) TYPE_CLASSES.get(cls);
+    }
 
+    private static Class<?> findTypeClass(Class<?> cls) {
         // Get the type-struct. This is an inner class that extends ObjectClass.
         for (Class<?> gclass : cls.getDeclaredClasses()) {
             if (TypeClass.class.isAssignableFrom(gclass)) {
-                return (Class<TC>) gclass;
+                return gclass;
             }
         }
         // If the type-struct is unavailable, get it from the parent class.
         for (Class<?> gclass : cls.getSuperclass().getDeclaredClasses()) {
             if (TypeClass.class.isAssignableFrom(gclass)) {
-                return (Class<TC>) gclass;
+                return gclass;
             }
         }
         return null;
@@ -731,10 +792,14 @@ public class Types {
      */
     @SuppressWarnings("unchecked")
     public static <TI extends TypeInterface> Class<TI> getTypeInterface(Class<?> iface) {
+        return (Class<TI>) TYPE_INTERFACES.get(iface);
+    }
+
+    private static Class<?> findTypeInterface(Class<?> iface) {
         // Get the type-struct. This is an inner class that extends TypeInterface.
         for (Class<?> giface : iface.getClasses()) {
             if (TypeInterface.class.isAssignableFrom(giface)) {
-                return (Class<TI>) giface;
+                return giface;
             }
         }
         return null;
@@ -783,24 +848,56 @@ public class Types {
      * @return the declared GType
      */
     public static Type getGType(Class<?> cls) {
-        Method gtypeMethod = getGTypeMethod(cls);
+        GTypeReader reader = GTYPES.get(cls);
+        Type type = reader.type;
+        return type != null ? type : reader.read(cls);
+    }
 
-        if (gtypeMethod == null) {
-            // No gtype method found
-            GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
-                    "Cannot find static method that returns org.gnome.glib.Type in class %s\n",
-                    cls.getName());
-            return null;
+    /*
+     * Reads the GType of a class with a method handle to its gtype method.
+     * The GType is cached as soon as it has been read successfully.
+     */
+    private static final class GTypeReader {
+        private final Method method;
+        private final MethodHandle handle;
+        private volatile Type type;
+
+        GTypeReader(Class<?> cls) {
+            method = getGTypeMethod(cls);
+            MethodHandle mh = null;
+            if (method != null) {
+                try {
+                    // Make sure the class is readable from this module
+                    Types.class.getModule().addReads(cls.getModule());
+                    mh = MethodHandles.lookup().unreflect(method)
+                            .asType(MethodType.methodType(Type.class));
+                } catch (IllegalAccessException | WrongMethodTypeException ignored) {
+                }
+            }
+            handle = mh;
         }
 
-        try {
-            return (Type) gtypeMethod.invoke(null);
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            // Method is not public, or throws an exception
-            GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
-                    "Exception while trying to read %s.%s\n",
-                    cls.getName(), gtypeMethod.getName());
-            return null;
+        Type read(Class<?> cls) {
+            if (method == null) {
+                // No gtype method found
+                GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                        "Cannot find static method that returns org.gnome.glib.Type in class %s\n",
+                        cls.getName());
+                return null;
+            }
+
+            try {
+                if (handle == null)
+                    // Fall back to reflection
+                    return type = (Type) method.invoke(null);
+                return type = (Type) handle.invokeExact();
+            } catch (Throwable e) {
+                // Method is not public, or throws an exception
+                GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                        "Exception while trying to read %s.%s\n",
+                        cls.getName(), method.getName());
+                return null;
+            }
         }
     }
 
@@ -836,6 +933,10 @@ public class Types {
      * @return the declared MemoryLayout
      */
     public static MemoryLayout getLayout(Class<?> cls) {
+        return LAYOUTS.get(cls);
+    }
+
+    private static MemoryLayout findLayout(Class<?> cls) {
         // Find a method that is annotated with @MemoryLayout and execute it
         for (Method m : cls.getDeclaredMethods()) {
             if (m.isAnnotationPresent(Layout.class)) {
@@ -881,7 +982,8 @@ public class Types {
 
     /**
      * Return the memory address constructor for the provided class. This is a
-     * constructor for a new Proxy instance for a native memory address.
+     * constructor for a new Proxy instance for a native memory address. The
+     * constructor function is created once per class and then reused.
      *
      * @param  cls the class that declares a constructor with a single
      *             {@link MemorySegment} parameter
@@ -891,35 +993,23 @@ public class Types {
      */
     public static <T extends Proxy>
     Function<MemorySegment, T> getAddressConstructor(Class<T> cls) {
+        return AddressConstructor.get(cls);
+    }
 
-        Constructor<T> ctor;
-        try {
-            // Get memory address constructor
-            ctor = cls.getConstructor(MemorySegment.class);
-        } catch (NoSuchMethodException e) {
-            GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
-                    "Cannot find memory-address constructor definition for class %s: %s\n",
-                    cls.getName(), e.toString());
-            return null;
-        }
-
-        // Create a wrapper function that will run the constructor and catch
-        // exceptions
-        return (addr) -> {
-            try {
-                return ctor.newInstance(addr);
-            } catch (InvocationTargetException ite) {
-                GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
-                        "Exception in constructor for class %s: %s\n",
-                        cls.getName(), ite.getTargetException().toString());
-                return null;
-            } catch (Exception e) {
-                GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
-                        "Exception in constructor for class %s: %s\n",
-                        cls.getName(), e.toString());
-                return null;
-            }
-        };
+    /**
+     * Return the constructor of a registration descriptor as a memory address
+     * constructor for the provided class. The type cache can then determine
+     * the class of the instances without creating one.
+     *
+     * @param  cls        the class that is registered
+     * @param  descriptor the registration descriptor of the class
+     * @param  <T>        the class must extend {@link GObject}
+     * @return the memory address constructor for this class
+     */
+    public static <T extends GObject>
+    Function<MemorySegment, T> getAddressConstructor(
+            Class<T> cls, RegistrationDescriptor<T> descriptor) {
+        return AddressConstructor.of(cls, descriptor::newInstance);
     }
 
     /**
@@ -1093,6 +1183,9 @@ public class Types {
      * <p>
      * The {@link TypeFlags#ABSTRACT} and {@link TypeFlags#FINAL} flags are set
      * for abstract and final Java classes.
+     * <p>
+     * When a {@link RegistrationDescriptor} was generated for the class at
+     * compile time, it is used instead of scanning the class with reflection.
      *
      * @param  <T> The class must be derived from GObject
      * @return the new registered GType
@@ -1106,6 +1199,12 @@ public class Types {
             return null;
         }
 
+        // Prefer the registration descriptor that was generated at compile
+        // time
+        RegistrationDescriptor<T> descriptor = getRegistrationDescriptor(cls);
+        if (descriptor != null)
+            return register(cls, descriptor);
+
         try {
             Class<?> parentClass = cls.getSuperclass();
             Type parentType = getGType(parentClass);
@@ -1155,39 +1254,100 @@ public class Types {
                     flags
             );
 
-            // Add interfaces
-            try (var arena = Arena.ofConfined()) {
-                for (Class<?> iface : cls.getInterfaces()) {
-                    if (Proxy.class.isAssignableFrom(iface)) {
-                        Type ifaceType = getGType(iface);
-                        if (ifaceType == null) {
-                            GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
-                                    "Cannot implement interface %s on class %s: No GType\n",
-                                    iface.getName(), cls.getName());
-                            continue;
-                        }
+            addInterfaces(cls, type);
+            return type;
 
-                        InterfaceInfo interfaceInfo = new InterfaceInfo(arena);
-                        Consumer<TypeInterface> ifaceOverridesInit =
-                                Overrides.overrideInterfaceMethods(cls, iface);
-                        Consumer<TypeInterface> ifaceInit =
-                                getInterfaceInit(cls, iface);
-
-                        // Override virtual methods before running a user-defined
-                        // interface init
-                        ifaceInit = chain(ifaceOverridesInit, ifaceInit);
-                        if (ifaceInit == null) {
-                            ifaceInit = $ -> {};
-                        }
+        } catch (Exception e) {
+            GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                    "Cannot register type %s: %s\n",
+                    cls.getName(), e.toString());
+            return null;
+        }
+    }
 
-                        Consumer<TypeInterface> finalIfaceInit = ifaceInit;
-                        interfaceInfo.writeInterfaceInit((ti, data) ->
-                                finalIfaceInit.accept(ti), Arena.global());
-                        GObjects.typeAddInterfaceStatic(
-                                type, ifaceType, interfaceInfo);
-                    }
-                }
+    /**
+     * Return the registration descriptor that was generated for the provided
+     * class by the {@code gobject-processor} annotation processor.
+     *
+     * @param  cls the class for which to return the registration descriptor
+     * @param  <T> the class must extend {@link GObject}
+     * @return the registration descriptor, or {@code null} if no descriptor
+     *         was generated for the class
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends GObject>
+    RegistrationDescriptor<T> getRegistrationDescriptor(Class<T> cls) {
+        String name = cls.getName();
+        int dot = name.lastIndexOf('.');
+        String descriptorName = name.substring(0, dot + 1)
+                + name.substring(dot + 1).replace('$', '_')
+                + RegistrationDescriptor.SUFFIX;
+        try {
+            Class<?> descriptorClass = Class.forName(
+                    descriptorName, true, cls.getClassLoader());
+            if (! RegistrationDescriptor.class.isAssignableFrom(descriptorClass))
+                return null;
+            return (RegistrationDescriptor<T>) descriptorClass
+                    .getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (Exception e) {
+            GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                    "Cannot load registration descriptor %s: %s\n",
+                    descriptorName, e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Register a new GType for a Java class, using a registration descriptor
+     * that was generated at compile time. Overridden virtual methods and
+     * implemented interfaces are discovered with reflection, like in
+     * {@link #register(Class)}.
+     *
+     * @param  cls        the class to register
+     * @param  descriptor the registration descriptor for the class
+     * @param  <T>        the class must be derived from GObject
+     * @param  <TC>       the class initializer receives a typeclass that is
+     *                    a subclass of {@link GObject.ObjectClass}
+     * @return the new registered GType
+     */
+    public static <T extends GObject, TC extends GObject.ObjectClass>
+    Type register(Class<T> cls, RegistrationDescriptor<T> descriptor) {
+        try {
+            Type parentType = descriptor.parentType();
+            String typeName = descriptor.typeName();
+            MemoryLayout classLayout = descriptor.classLayout();
+            MemoryLayout instanceLayout = descriptor.instanceLayout();
+
+            if (parentType == null
+                    || classLayout == null
+                    || instanceLayout == null) {
+                GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                        "Cannot register type %s\n", cls.getName());
+                return null;
             }
+
+            // Override virtual methods and install properties and signals
+            // before running a user-defined class init
+            Consumer<TC> overridesInit = Overrides.overrideClassMethods(cls);
+            Consumer<TC> classInit = chain(overridesInit,
+                    descriptor::installProperties);
+            classInit = chain(classInit, descriptor::installSignals);
+            classInit = chain(classInit, getClassInit(cls, descriptor));
+
+            Type type = register(
+                    parentType,
+                    typeName,
+                    classLayout,
+                    classInit,
+                    instanceLayout,
+                    getInstanceInit(cls, descriptor),
+                    getAddressConstructor(cls, descriptor),
+                    descriptor.typeFlags()
+            );
+
+            addInterfaces(cls, type);
             return type;
 
         } catch (Exception e) {
@@ -1198,6 +1358,93 @@ public class Types {
         }
     }
 
+    /**
+     * Return a lambda that runs the class initializer from the registration
+     * descriptor. Exceptions are logged.
+     *
+     * @param  cls        the registered class
+     * @param  descriptor the registration descriptor for the class
+     * @param  <T>        the class must extend {@link GObject}
+     * @param  <TC>       the class initializer must accept a
+     *                    {@link GObject.ObjectClass} parameter
+     * @return the class initializer
+     */
+    public static <T extends GObject, TC extends GObject.ObjectClass>
+    Consumer<TC> getClassInit(Class<T> cls,
+                              RegistrationDescriptor<T> descriptor) {
+        return (gclass) -> {
+            try {
+                descriptor.classInit(gclass);
+            } catch (Throwable t) {
+                GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                        "Exception in %s class init: %s\n",
+                        cls.getName(), t.toString());
+            }
+        };
+    }
+
+    /**
+     * Return a lambda that runs the instance initializer from the
+     * registration descriptor. Exceptions are logged.
+     *
+     * @param  cls        the registered class
+     * @param  descriptor the registration descriptor for the class
+     * @param  <T>        the class must extend {@link GObject}
+     * @return the instance initializer
+     */
+    public static <T extends GObject>
+    Consumer<T> getInstanceInit(Class<T> cls,
+                                RegistrationDescriptor<T> descriptor) {
+        return (instance) -> {
+            try {
+                descriptor.instanceInit(instance);
+            } catch (Throwable t) {
+                GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                        "Exception in %s instance init: %s\n",
+                        cls.getName(), t.toString());
+            }
+        };
+    }
+
+    /*
+     * Add the GObject interfaces that are implemented by the Java class to
+     * the GType, and override their virtual methods.
+     */
+    private static <T extends GObject> void addInterfaces(Class<T> cls, Type type) {
+        try (var arena = Arena.ofConfined()) {
+            for (Class<?> iface : cls.getInterfaces()) {
+                if (Proxy.class.isAssignableFrom(iface)) {
+                    Type ifaceType = getGType(iface);
+                    if (ifaceType == null) {
+                        GLib.log(LOG_DOMAIN, LogLevelFlags.LEVEL_CRITICAL,
+                                "Cannot implement interface %s on class %s: No GType\n",
+                                iface.getName(), cls.getName());
+                        continue;
+                    }
+
+                    InterfaceInfo interfaceInfo = new InterfaceInfo(arena);
+                    Consumer<TypeInterface> ifaceOverridesInit =
+                            Overrides.overrideInterfaceMethods(cls, iface);
+                    Consumer<TypeInterface> ifaceInit =
+                            getInterfaceInit(cls, iface);
+
+                    // Override virtual methods before running a user-defined
+                    // interface init
+                    ifaceInit = chain(ifaceOverridesInit, ifaceInit);
+                    if (ifaceInit == null) {
+                        ifaceInit = $ -> {};
+                    }
+
+                    Consumer<TypeInterface> finalIfaceInit = ifaceInit;
+                    interfaceInfo.writeInterfaceInit((ti, data) ->
+                            finalIfaceInit.accept(ti), Arena.global());
+                    GObjects.typeAddInterfaceStatic(
+                            type, ifaceType, interfaceInfo);
+                }
+            }
+        }
+    }
+
     /**
      * Register a new GType.
      *
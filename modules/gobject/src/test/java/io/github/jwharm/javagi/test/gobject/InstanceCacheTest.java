@@ -0,0 +1,68 @@
+package io.github.jwharm.javagi.test.gobject;
+
+import io.github.jwharm.javagi.gobject.InstanceCache;
+import org.gnome.glib.MainContext;
+import org.gnome.gobject.GObject;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.ref.WeakReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test that the instance cache returns one Proxy object per native instance,
+ * and keeps it alive only while native code holds other references
+ */
+public class InstanceCacheTest {
+
+    @Test
+    void testGetAndPut() {
+        GObject object = GObject.newInstance(GObject.getType());
+        MemorySegment address = object.handle();
+
+        assertSame(object, InstanceCache.get(address, GObject::new, true));
+        assertSame(object, InstanceCache.getForType(address, GObject.class, GObject::new, true));
+
+        // Another Proxy object for the same address doesn't replace the cached one
+        assertSame(object, InstanceCache.put(address, new GObject(address)));
+    }
+
+    @Test
+    void testToggle() throws InterruptedException {
+        WeakReference<GObject> weak = createAndRef();
+
+        // The toggle reference is strong: native code holds another reference
+        collect(weak, 10);
+        GObject object = weak.get();
+        assertNotNull(object);
+
+        // The toggle reference becomes weak: it is the last reference
+        object.unref();
+        object = null;
+        collect(weak, 100);
+        assertNull(weak.get());
+
+        var context = MainContext.default_();
+        while (context.pending())
+            context.iteration(false);
+    }
+
+    // Create a GObject with an extra reference, and return only a weak
+    // reference to the Java object
+    private static WeakReference<GObject> createAndRef() {
+        GObject object = GObject.newInstance(GObject.getType());
+        object.ref();
+        return new WeakReference<>(object);
+    }
+
+    // Run the garbage collector until the weak reference is cleared, or
+    // the maximum number of attempts is reached
+    private static void collect(WeakReference<?> weak, int attempts)
+            throws InterruptedException {
+        for (int i = 0; i < attempts && weak.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+    }
+}
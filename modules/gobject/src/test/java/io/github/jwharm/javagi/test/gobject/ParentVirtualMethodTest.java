@@ -0,0 +1,55 @@
+package io.github.jwharm.javagi.test.gobject;
+
+import io.github.jwharm.javagi.gobject.annotations.RegisteredType;
+import io.github.jwharm.javagi.gobject.types.Overrides;
+import io.github.jwharm.javagi.gobject.types.Types;
+import org.gnome.glib.Type;
+import org.gnome.gobject.GObject;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test looking up and caching the parent implementation of a virtual method
+ */
+public class ParentVirtualMethodTest {
+
+    @Test
+    void testParentHandleIsCached() {
+        var dispose = new Overrides.ParentVirtualMethod("dispose",
+                GObject.ObjectClass::getMemoryLayout,
+                () -> FunctionDescriptor.ofVoid(ValueLayout.ADDRESS));
+
+        Child child = GObject.newInstance(Child.gtype);
+        MethodHandle handle = dispose.get(child.handle());
+        assertNotNull(handle);
+        assertSame(handle, dispose.get(child.handle()));
+
+        // Both types inherit dispose from GObject, so the handle is shared
+        OtherChild other = GObject.newInstance(OtherChild.gtype);
+        assertSame(handle, dispose.get(other.handle()));
+    }
+
+    @RegisteredType(name="ParentVirtualMethodTestChild")
+    public static class Child extends GObject {
+        public static final Type gtype = Types.register(Child.class);
+
+        public Child(MemorySegment address) {
+            super(address);
+        }
+    }
+
+    @RegisteredType(name="ParentVirtualMethodTestOtherChild")
+    public static class OtherChild extends GObject {
+        public static final Type gtype = Types.register(OtherChild.class);
+
+        public OtherChild(MemorySegment address) {
+            super(address);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2023 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.test.gobject;
+
+import io.github.jwharm.javagi.gobject.annotations.Property;
+import io.github.jwharm.javagi.gobject.types.Properties;
+import io.github.jwharm.javagi.gobject.types.Types;
+import org.gnome.glib.Type;
+import org.gnome.gobject.GObject;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.MemorySegment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test getting and setting multiple GObject properties at once
+ */
+public class PropertiesTest {
+
+    @Test
+    void testBatchProperties() {
+        Row row = GObject.newInstance(Row.type);
+        Properties.setProperties(row,
+                new String[] {"id", "title", "price"},
+                new Object[] {7, "abc", 1.5});
+        assertEquals(7, row.getId());
+        assertEquals("abc", row.getTitle());
+        assertEquals(1.5, row.getPrice());
+
+        Object[] values = Properties.getProperties(row, "price", "id", "title");
+        assertArrayEquals(new Object[] {1.5, 7, "abc"}, values);
+
+        // Single properties use the same cached metadata
+        Properties.setProperty(row, "id", 8);
+        assertEquals(8, Properties.getProperty(row, "id"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> Properties.getProperties(row, "id", "no-such-property"));
+    }
+
+    public static class Row extends GObject {
+        public static Type type = Types.register(Row.class);
+
+        public Row(MemorySegment address) {
+            super(address);
+        }
+
+        private int id;
+        private String title;
+        private double price;
+
+        @Property(name="id") public int getId() { return id; }
+        @Property(name="id") public void setId(int id) { this.id = id; }
+        @Property(name="title") public String getTitle() { return title; }
+        @Property(name="title") public void setTitle(String title) { this.title = title; }
+        @Property(name="price") public double getPrice() { return price; }
+        @Property(name="price") public void setPrice(double price) { this.price = price; }
+    }
+}
@@ -0,0 +1,95 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2023 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.test.gobject;
+
+import io.github.jwharm.javagi.gobject.annotations.GType;
+import io.github.jwharm.javagi.gobject.annotations.RegisteredType;
+import io.github.jwharm.javagi.gobject.annotations.Signal;
+import io.github.jwharm.javagi.gobject.types.Signals;
+import io.github.jwharm.javagi.gobject.types.Types;
+import org.gnome.glib.Type;
+import org.gnome.gobject.GObject;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test emitting a signal with {@code GObject.emit()} and with the typed
+ * {@code Signals.emit()} overloads
+ */
+public class SignalEmitTest {
+
+    private static final int ITERATIONS = 1_000;
+
+    @Test
+    void testEmit() {
+        Emitter emitter = GObject.newInstance(Emitter.getType());
+        AtomicInteger sum = new AtomicInteger();
+        emitter.connect("tick", (Emitter.Tick) sum::addAndGet);
+
+        // Emit repeatedly, so the cached lookups are reused
+        for (int i = 0; i < ITERATIONS; i++)
+            emitter.emit("tick", 1);
+        assertEquals(ITERATIONS, sum.get());
+    }
+
+    @Test
+    void testTypedEmit() {
+        Emitter emitter = GObject.newInstance(Emitter.getType());
+        AtomicInteger sum = new AtomicInteger();
+        emitter.connect("tick", (Emitter.Tick) sum::addAndGet);
+
+        // Emit repeatedly, so the cached value arrays are reused
+        for (int i = 0; i < ITERATIONS; i++)
+            Signals.emit(emitter, "tick", 1L);
+        assertEquals(ITERATIONS, sum.get());
+    }
+
+    @Test
+    void testInvalidEmit() {
+        Emitter emitter = GObject.newInstance(Emitter.getType());
+        assertThrows(IllegalArgumentException.class,
+                () -> Signals.emit(emitter, "no-such-signal"));
+        assertThrows(IllegalArgumentException.class,
+                () -> Signals.emit(emitter, "tick"));
+    }
+
+    @RegisteredType(name="TestEmitter")
+    public static class Emitter extends GObject {
+        private static final Type gtype = Types.register(Emitter.class);
+
+        @GType
+        public static Type getType() {
+            return gtype;
+        }
+
+        public Emitter(MemorySegment address) {
+            super(address);
+        }
+
+        @Signal
+        public interface Tick extends IntConsumer {}
+    }
+}
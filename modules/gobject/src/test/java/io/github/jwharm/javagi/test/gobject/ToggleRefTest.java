@@ -0,0 +1,92 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2024 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.test.gobject;
+
+import io.github.jwharm.javagi.gobject.InstanceCache;
+import org.gnome.glib.MainContext;
+import org.gnome.gobject.GObject;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test that toggle references of garbage-collected GObjects are queued, and
+ * removed in batches by the default main context
+ */
+public class ToggleRefTest {
+
+    private static final int COUNT = 10_000;
+
+    @Test
+    void testBatchedToggleRefRemoval() throws InterruptedException {
+        var context = MainContext.default_();
+        long latency = InstanceCache.toggleRefDrainLatency();
+
+        // While this thread owns the default main context, the toggle
+        // references are queued, and not removed
+        assertTrue(context.acquire());
+        try {
+            WeakReference<GObject> last = createObjects();
+            assertTrue(await(() -> last.get() == null
+                            && InstanceCache.pendingToggleRefs() > 0),
+                    "Toggle references were not queued");
+
+            // Remove the queued toggle references
+            assertTrue(await(() -> {
+                        while (context.pending())
+                            context.iteration(false);
+                        return InstanceCache.pendingToggleRefs() == 0;
+                    }),
+                    "Toggle references were not removed");
+        } finally {
+            context.release();
+        }
+
+        assertNotEquals(latency, InstanceCache.toggleRefDrainLatency());
+        assertTrue(InstanceCache.toggleRefDrainLatency() >= 0);
+    }
+
+    // Create GObjects without keeping a reference, and return a weak
+    // reference to the last one
+    private static WeakReference<GObject> createObjects() {
+        GObject object = null;
+        for (int i = 0; i < COUNT; i++)
+            object = GObject.newInstance(GObject.getType());
+        return new WeakReference<>(object);
+    }
+
+    // Run the garbage collector until the condition is met, for at most
+    // ten seconds
+    private static boolean await(BooleanSupplier condition)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() - deadline > 0)
+                return false;
+            System.gc();
+            Thread.sleep(10);
+        }
+        return true;
+    }
+}
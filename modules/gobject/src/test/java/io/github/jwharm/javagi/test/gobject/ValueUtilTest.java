@@ -0,0 +1,83 @@
+/* Java-GI - Java language bindings for GObject-Introspection-based libraries
+ * Copyright (C) 2022-2023 Jan-Willem Harmannij
+ *
+ * SPDX-License-Identifier: LGPL-2.1-or-later
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.jwharm.javagi.test.gobject;
+
+import io.github.jwharm.javagi.gobject.ValueUtil;
+import io.github.jwharm.javagi.gobject.types.Types;
+import org.gnome.gobject.Value;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test converting Java values to and from GValues of all numeric types
+ */
+public class ValueUtilTest {
+
+    @Test
+    public void testUnsignedTypes() {
+        try (var arena = Arena.ofConfined()) {
+            Value vUint = new Value(arena).init(Types.UINT);
+            assertTrue(ValueUtil.objectToValue(-1, vUint));
+            assertEquals(-1, ValueUtil.valueToObject(vUint));
+            assertEquals(0xFFFFFFFFL, ValueUtil.valueToLong(vUint));
+            vUint.unset();
+
+            Value vUchar = new Value(arena).init(Types.UCHAR);
+            assertTrue(ValueUtil.objectToValue((byte) 200, vUchar));
+            assertEquals((byte) 200, ValueUtil.valueToObject(vUchar));
+            assertEquals(200L, ValueUtil.valueToLong(vUchar));
+            vUchar.unset();
+
+            Value vUint64 = new Value(arena).init(Types.UINT64);
+            assertTrue(ValueUtil.objectToValue(Long.MAX_VALUE, vUint64));
+            assertEquals(Long.MAX_VALUE, ValueUtil.valueToObject(vUint64));
+            vUint64.unset();
+        }
+    }
+
+    @Test
+    public void testPrimitiveAccess() {
+        try (var arena = Arena.ofConfined()) {
+            Value vInt64 = new Value(arena).init(Types.INT64);
+            assertTrue(ValueUtil.longToValue(1L << 40, vInt64));
+            assertEquals(1L << 40, ValueUtil.valueToLong(vInt64));
+            assertEquals((double) (1L << 40), ValueUtil.valueToDouble(vInt64));
+            vInt64.unset();
+
+            Value vLong = new Value(arena).init(Types.LONG);
+            assertTrue(ValueUtil.longToValue(42, vLong));
+            assertEquals(42L, ValueUtil.valueToLong(vLong));
+            vLong.unset();
+
+            Value vDouble = new Value(arena).init(Types.DOUBLE);
+            assertTrue(ValueUtil.doubleToValue(Math.PI, vDouble));
+            assertEquals(Math.PI, ValueUtil.valueToDouble(vDouble));
+            assertThrows(IllegalArgumentException.class, () -> ValueUtil.valueToLong(vDouble));
+            vDouble.unset();
+
+            Value vString = new Value(arena).init(Types.STRING);
+            assertFalse(ValueUtil.longToValue(1, vString));
+            vString.unset();
+        }
+    }
+}
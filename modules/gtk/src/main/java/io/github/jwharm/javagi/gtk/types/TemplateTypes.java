@@ -24,6 +24,7 @@ import io.github.jwharm.javagi.base.Proxy;
 import io.github.jwharm.javagi.gobject.InstanceCache;
 import io.github.jwharm.javagi.gobject.types.Overrides;
 import io.github.jwharm.javagi.gobject.types.Properties;
+import io.github.jwharm.javagi.gobject.types.RegistrationDescriptor;
 import io.github.jwharm.javagi.gobject.types.Signals;
 import io.github.jwharm.javagi.gtk.annotations.GtkChild;
 import io.github.jwharm.javagi.gtk.annotations.GtkTemplate;
@@ -57,6 +58,16 @@ import static io.github.jwharm.javagi.gobject.types.Types.*;
  */
 public class TemplateTypes {
 
+    /*
+     * The parent (GObject) dispose function, that is called from the
+     * template dispose function. The Java binding is a protected method, so
+     * the C function is called directly.
+     */
+    private static final Overrides.ParentVirtualMethod PARENT_DISPOSE =
+            new Overrides.ParentVirtualMethod("dispose",
+                    GObject.ObjectClass::getMemoryLayout,
+                    () -> FunctionDescriptor.ofVoid(ValueLayout.ADDRESS));
+
     /**
      * Get the {@code name} parameter of the {@code GtkTemplate} annotation, or
      * if it is not defined, fallback to
@@ -203,18 +214,10 @@ public class TemplateTypes {
             overrideDispose(widgetClass, (object) -> {
                 ((Widget) object).disposeTemplate(typeClass.readGType());
 
-                /*
-                 * Chain up to the parent (GObject) dispose function. The Java
-                 * binding is a protected method, so we call the C function
-                 * directly.
-                 */
+                // Chain up to the parent (GObject) dispose function
                 try {
-                    var parent = GObject.ObjectClass.getMemoryLayout();
-                    var func = Overrides.lookupVirtualMethodParent(
-                                    object.handle(), parent, "dispose");
-                    var desc = FunctionDescriptor.ofVoid(ValueLayout.ADDRESS);
-                    var downcall = Interop.downcallHandle(func, desc);
-                    downcall.invokeExact(object.handle());
+                    PARENT_DISPOSE.get(object.handle())
+                            .invokeExact(object.handle());
                 } catch (Throwable _err) {
                     throw new AssertionError("Unexpected exception occurred: ", _err);
                 }
@@ -288,15 +291,34 @@ public class TemplateTypes {
             Class<?> parentClass = cls.getSuperclass();
             Type parentType = getGType(parentClass);
             MemoryLayout classLayout = getClassLayout(cls, name);
-            Function<MemorySegment, W> constructor = getAddressConstructor(cls);
             Set<TypeFlags> flags = getTypeFlags(cls);
 
+            // Use the registration descriptor that was generated at compile
+            // time, if available. The template itself is always processed
+            // with reflection.
+            RegistrationDescriptor<W> descriptor = getRegistrationDescriptor(cls);
+            Function<MemorySegment, W> constructor;
+            Consumer<GObject.ObjectClass> propertiesInit;
+            Consumer<GObject.ObjectClass> signalsInit;
+            Consumer<GObject.ObjectClass> userDefinedClassInit;
+            Consumer<W> userDefinedInit;
+            if (descriptor != null) {
+                constructor = getAddressConstructor(cls, descriptor);
+                propertiesInit = descriptor::installProperties;
+                signalsInit = descriptor::installSignals;
+                userDefinedClassInit = getClassInit(cls, descriptor);
+                userDefinedInit = getInstanceInit(cls, descriptor);
+            } else {
+                constructor = getAddressConstructor(cls);
+                propertiesInit = Properties.installProperties(cls);
+                signalsInit = Signals.installSignals(cls);
+                userDefinedClassInit = getClassInit(cls);
+                userDefinedInit = getInstanceInit(cls);
+            }
+
             // Chain template class init with user-defined class init function
-            var overridesInit = Overrides.overrideClassMethods(cls);
-            var propertiesInit = Properties.installProperties(cls);
-            var signalsInit = Signals.installSignals(cls);
+            Consumer<GObject.ObjectClass> overridesInit = Overrides.overrideClassMethods(cls);
             var templateClassInit = getTemplateClassInit(cls, instanceLayout);
-            var userDefinedClassInit = getClassInit(cls);
 
             // Override virtual methods, install properties and signals, and
             // then install the template before running a user-defined class
@@ -308,7 +330,6 @@ public class TemplateTypes {
 
             // Chain template instance init with user-defined init function
             Consumer<W> instanceInit = getTemplateInstanceInit(cls);
-            Consumer<W> userDefinedInit = getInstanceInit(cls);
             if (userDefinedInit != null)
                 instanceInit = instanceInit.andThen(userDefinedInit);
 
@@ -395,7 +416,7 @@ public class TemplateTypes {
         void run(GObject object);
 
         default void upcall(MemorySegment object) {
-            run((GObject) InstanceCache.getForType(object, GObject::new, false));
+            run((GObject) InstanceCache.getForType(object, GObject.class, GObject::new, false));
         }
 
         default MemorySegment toCallback(Arena arena) {
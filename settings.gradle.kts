@@ -12,6 +12,7 @@ include("gio")
 include("glib")
 include("gmodule")
 include("gobject")
+include("gobject-processor")
 include("graphene")
 include("gsk")
 include("gst")